@@ -1,5 +1,6 @@
 import React, { createContext, useEffect, useState } from "react";
 import { AppConstants } from "../util/constants";
+import { installRefreshInterceptor } from "../util/refreshInterceptor";
 import axios from "axios";
 import { toast } from "react-toastify";
 
@@ -64,6 +65,14 @@ export const AppContextProvider = (props) => {
         }
     };
 
+    useEffect(() => {
+        const interceptor = installRefreshInterceptor(BackendUrl, () => {
+            setIsLoggedIn(false);
+            setUserData(null);
+        });
+        return () => axios.interceptors.response.eject(interceptor);
+    }, [BackendUrl]);
+
     useEffect(() => {
         // Check authentication status on initial load
         getAuthStatus();
@@ -0,0 +1,35 @@
+import axios from "axios";
+
+// Endpoints whose 401 means bad credentials, not an expired access cookie
+const AUTH_PATHS = ["/login", "/register", "/refresh", "/logout"];
+
+let refreshing = null;
+
+// The access cookie only lives for 15 minutes. On a 401 the refresh cookie is exchanged for a new pair
+// once and the request is retried. /refresh rotates the refresh token, so concurrent 401s share one call.
+export const installRefreshInterceptor = (backendUrl, onSessionExpired) => {
+    return axios.interceptors.response.use(
+        (response) => response,
+        async (error) => {
+            const request = error.config;
+            if (error.response?.status !== 401 || !request || request._retried
+                || AUTH_PATHS.some((path) => request.url?.startsWith(backendUrl + path))) {
+                return Promise.reject(error);
+            }
+            request._retried = true;
+
+            try {
+                if (!refreshing) {
+                    refreshing = axios.post(backendUrl + "/refresh").finally(() => {
+                        refreshing = null;
+                    });
+                }
+                await refreshing;
+            } catch {
+                onSessionExpired();
+                return Promise.reject(error);
+            }
+            return axios(request);
+        }
+    );
+};
@@ -0,0 +1,118 @@
+package com.likhith.springsecurity.benchmark;
+
+import com.likhith.springsecurity.config.CacheConfig;
+import com.likhith.springsecurity.config.PublicRoutes;
+import com.likhith.springsecurity.filter.JwtRequestFilter;
+import com.likhith.springsecurity.repository.RevokedTokenRepository;
+import com.likhith.springsecurity.repository.UserRepository;
+import com.likhith.springsecurity.service.AppUserDetails;
+import com.likhith.springsecurity.service.AppUserDetailsService;
+import com.likhith.springsecurity.service.LocalTokenVersionChannel;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.service.TokenVersionRegistry;
+import com.likhith.springsecurity.util.AuthCookies;
+import com.likhith.springsecurity.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Whole JwtRequestFilter pass for one request: token lookup, verification, revocation and version
+// checks, principal construction. The user lookup is stubbed as a cache hit, like in production.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtRequestFilterBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    @Param({"header", "cookie", "public"})
+    public String source;
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private JwtRequestFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain filterChain = (req, res) -> { };
+
+    @Setup
+    public void setup() throws Exception {
+        JwtUtil jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        UserDetails user = new AppUserDetails(EMAIL, "", List.of(), "user-id", 0);
+        String token = jwtUtil.generateToken(user);
+
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.countActive(any())).thenReturn(0L);
+        when(revokedTokenRepository.streamActiveJtis(any())).thenReturn(Stream.empty());
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(revokedTokenRepository);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedInsertions", 100_000);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.01);
+        tokenRevocationService.rebuild();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionByEmail(anyString())).thenReturn(Optional.of(0L));
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(
+                userRepository, new LocalTokenVersionChannel(), new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS_CACHE));
+        ReflectionTestUtils.setField(tokenVersionRegistry, "cacheSize", 1000L);
+        ReflectionTestUtils.setField(tokenVersionRegistry, "cacheTtl", Duration.ofMinutes(5));
+        tokenVersionRegistry.init();
+
+        AppUserDetailsService appUserDetailsService = new AppUserDetailsService(null, null, null, null, new SimpleMeterRegistry()) {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return user;
+            }
+        };
+
+        filter = new JwtRequestFilter(appUserDetailsService, jwtUtil, tokenRevocationService, tokenVersionRegistry, new PublicRoutes());
+        ReflectionTestUtils.setField(filter, "statelessEnabled", stateless);
+
+        request = new MockHttpServletRequest("GET", "public".equals(source) ? "/swagger-ui/index.html" : "/profile");
+        if ("header".equals(source)) {
+            request.addHeader("Authorization", "Bearer " + token);
+        } else if ("cookie".equals(source)) {
+            request.setCookies(new Cookie("theme", "dark"), new Cookie(AuthCookies.ACCESS_TOKEN, token));
+        }
+        response = new MockHttpServletResponse();
+
+        // fail fast if the setup does not authenticate, rather than benchmarking the rejection path
+        filter.doFilter(request, response, filterChain);
+        if (!"public".equals(source) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            throw new IllegalStateException("Benchmark request was not authenticated");
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, filterChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.likhith.springsecurity.benchmark;
+
+import com.likhith.springsecurity.util.JwtSigningAlgorithm;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.VerifiedToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    static final String SECRET_KEY = "c3ByaW5nLXNlY3VyaXR5LXZhdWx0LWJlbmNobWFyay1zZWNyZXQta2V5LTI1Ng==";
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String hmacToken;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setup() {
+        jwtUtil = newJwtUtil();
+        userDetails = new User("bench@example.com", "", List.of());
+        token = jwtUtil.generateToken(userDetails);
+        hmacToken = Jwts.builder()
+                .subject(userDetails.getUsername())
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)), Jwts.SIG.HS256)
+                .compact();
+    }
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil(new StaticSigningKeyProvider(JwtSigningAlgorithm.ES256), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", Duration.ofMinutes(15));
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    // Previous behaviour (HS256 era): decode the secret and build a parser for every verification
+    @Benchmark
+    public String verifyRebuildingKeyAndParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseSignedClaims(hmacToken)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String verifyCachedParser() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    // Previous JwtRequestFilter flow: extractEmail, then isTokenValid parsing twice more
+    @Benchmark
+    public boolean filterCheckThreeParses() {
+        String email = jwtUtil.extractEmail(token);
+        return email.equals(userDetails.getUsername())
+                && jwtUtil.extractEmail(token).equals(userDetails.getUsername())
+                && !jwtUtil.extractExpiration(token).before(new Date());
+    }
+
+    @Benchmark
+    public boolean filterCheckSingleParse() {
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+        return jwtUtil.isTokenValid(verifiedToken, userDetails);
+    }
+}
@@ -0,0 +1,82 @@
+package com.likhith.springsecurity.benchmark;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Sign and verify cost of the algorithms the key ring can use, with the claims JwtUtil puts in an access token
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256", "Ed25519"})
+    public String algorithm;
+
+    private Supplier<String> signer;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> claims = Map.of(
+                "uid", "5f0c2b1e-3b7a-4f5e-9a53-0d7c4f3b2a11",
+                "roles", List.of(),
+                "ver", 0L);
+
+        switch (algorithm) {
+            case "HS256" -> {
+                SecretKey key = Jwts.SIG.HS256.key().build();
+                signer = () -> sign(claims, builder -> builder.signWith(key, Jwts.SIG.HS256));
+                parser = Jwts.parser().verifyWith(key).build();
+            }
+            case "ES256" -> {
+                KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+                signer = () -> sign(claims, builder -> builder.signWith(keyPair.getPrivate(), Jwts.SIG.ES256));
+                parser = Jwts.parser().verifyWith(keyPair.getPublic()).build();
+            }
+            case "Ed25519" -> {
+                KeyPair keyPair = Jwks.CRV.Ed25519.keyPair().build();
+                signer = () -> sign(claims, builder -> builder.signWith(keyPair.getPrivate(), Jwts.SIG.EdDSA));
+                parser = Jwts.parser().verifyWith(keyPair.getPublic()).build();
+            }
+            default -> throw new IllegalArgumentException(algorithm);
+        }
+        token = signer.get();
+    }
+
+    private static String sign(Map<String, Object> claims, UnaryOperator<JwtBuilder> signWith) {
+        long now = System.currentTimeMillis();
+        return signWith.apply(Jwts.builder())
+                .header().keyId("bench-key").and()
+                .claims(claims)
+                .subject("bench@example.com")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 900_000))
+                .compact();
+    }
+
+    @Benchmark
+    public String sign() {
+        return signer.get();
+    }
+
+    @Benchmark
+    public String verify() {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+}
@@ -0,0 +1,35 @@
+package com.likhith.springsecurity.benchmark;
+
+import com.likhith.springsecurity.util.JwtSigningAlgorithm;
+import com.likhith.springsecurity.util.SigningKey;
+import com.likhith.springsecurity.util.SigningKeyProvider;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.List;
+
+// Single in-memory key, so JwtUtil can be benchmarked without the database-backed key ring
+class StaticSigningKeyProvider implements SigningKeyProvider {
+
+    private final SigningKey key;
+
+    StaticSigningKeyProvider(JwtSigningAlgorithm algorithm) {
+        KeyPair keyPair = algorithm.generateKeyPair();
+        this.key = new SigningKey("bench-key", algorithm, keyPair.getPrivate(), keyPair.getPublic(), Instant.EPOCH);
+    }
+
+    @Override
+    public SigningKey signingKey() {
+        return key;
+    }
+
+    @Override
+    public SigningKey verificationKey(String kid) {
+        return key.kid().equals(kid) ? key : null;
+    }
+
+    @Override
+    public List<SigningKey> publishedKeys() {
+        return List.of(key);
+    }
+}
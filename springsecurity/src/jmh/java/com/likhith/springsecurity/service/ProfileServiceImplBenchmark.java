@@ -0,0 +1,52 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.UserEntity;
+import com.likhith.springsecurity.io.ProfileRequest;
+import com.likhith.springsecurity.io.ProfileResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Entity/response mapping of ProfileServiceImpl without the password hash, which PasswordEncoderBenchmark
+// covers; lives in the service package because the conversions are package-private
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProfileServiceImplBenchmark {
+
+    private ProfileServiceImpl profileService;
+    private ProfileRequest request;
+    private UserEntity user;
+
+    @Setup
+    public void setup() {
+        PasswordEncoder identityEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        profileService = new ProfileServiceImpl(null, identityEncoder, null, null, null, null, null);
+        request = new ProfileRequest("Bench User", "bench@example.com", "secret123");
+        user = profileService.convertToUserEntity(request);
+    }
+
+    @Benchmark
+    public UserEntity convertToUserEntity() {
+        return profileService.convertToUserEntity(request);
+    }
+
+    @Benchmark
+    public ProfileResponse convertToProfileResponse() {
+        return profileService.convertToProfileResponse(user);
+    }
+}
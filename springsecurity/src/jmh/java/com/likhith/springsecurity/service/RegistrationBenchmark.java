@@ -0,0 +1,86 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.io.ProfileRequest;
+import com.likhith.springsecurity.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// A batch of registrations through createProfile with a real BCrypt encoder; duplicatePercent of the batch hits
+// emails that already exist, which are turned away before hashing. The repository is an in-memory stand-in for
+// the unique constraint, so this measures the service path and not Postgres.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistrationBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"0", "50", "90"})
+    public int duplicatePercent;
+
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private ProfileServiceImpl profileService;
+    private List<ProfileRequest> batch;
+    private Set<String> existing;
+
+    @Setup
+    public void setup() {
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "existsByEmail" -> emails.contains((String) args[0]);
+                    case "insertIfAbsent" -> emails.add((String) args[2]) ? 1 : 0;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        profileService = new ProfileServiceImpl(userRepository, new BCryptPasswordEncoder(10),
+                mock(EmailService.class), null, null, null, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        existing = ConcurrentHashMap.newKeySet();
+        int duplicates = BATCH_SIZE * duplicatePercent / 100;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String email = "bench-" + i + "@example.com";
+            batch.add(new ProfileRequest("Bench User " + i, email, "secret123"));
+            if (i < duplicates) {
+                existing.add(email);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetUsers() {
+        emails.clear();
+        emails.addAll(existing);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int registerBatch() {
+        int created = 0;
+        for (ProfileRequest request : batch) {
+            try {
+                profileService.createProfile(request);
+                created++;
+            } catch (ResponseStatusException ex) {
+                // duplicate, expected for the pre-seeded share of the batch
+            }
+        }
+        return created;
+    }
+}
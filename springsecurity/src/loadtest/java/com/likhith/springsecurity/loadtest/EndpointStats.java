@@ -0,0 +1,50 @@
+package com.likhith.springsecurity.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram (1 us .. 1 min, 3 significant digits) and status counts for one endpoint in one phase
+class EndpointStats {
+
+    private final Recorder recorder = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), TimeUnit.MINUTES.toMicros(1)));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    Map<String, Object> report(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", histogram.getTotalCount());
+        report.put("errors", errors.sum());
+        report.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+        report.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        report.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        report.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        report.put("maxMs", millis(histogram.getMaxValue()));
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+        report.put("statuses", statusCounts);
+        return report;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
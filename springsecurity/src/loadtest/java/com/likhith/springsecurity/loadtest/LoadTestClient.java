@@ -0,0 +1,106 @@
+package com.likhith.springsecurity.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+// Thin HTTP client that records every call into the current phase's per-endpoint stats.
+// Latency is measured from the moment the call was due, not when it was sent, so a generator
+// that falls behind shows up as latency instead of silently lowering the load.
+class LoadTestClient {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    LoadTestClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    // starts a new phase and returns the stats of the previous one
+    Map<String, EndpointStats> swapStats() {
+        Map<String, EndpointStats> previous = stats;
+        stats = new ConcurrentHashMap<>();
+        return previous;
+    }
+
+    void record(String endpoint, long startNanos, int status) {
+        stats.computeIfAbsent(endpoint, e -> new EndpointStats()).record(System.nanoTime() - startNanos, status);
+    }
+
+    Response post(String path, Object body, String token, long dueNanos) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json(body)));
+        return send(endpoint(path), request, token, dueNanos);
+    }
+
+    Response get(String path, String token, long dueNanos) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        return send(endpoint(path), request, token, dueNanos);
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder request, String token, long dueNanos) {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            record(endpoint, dueNanos, response.statusCode());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException ex) {
+            record(endpoint, dueNanos, 0);
+            return new Response(0, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Response(0, "interrupted");
+        }
+    }
+
+    private static String endpoint(String path) {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+
+    private static String json(Object body) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(body);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    record Response(int status, String body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        String field(String name) {
+            try {
+                JsonNode node = OBJECT_MAPPER.readTree(body).get(name);
+                return node == null ? null : node.asText();
+            } catch (IOException ex) {
+                return null;
+            }
+        }
+    }
+}
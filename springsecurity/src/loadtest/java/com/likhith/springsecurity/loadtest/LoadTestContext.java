@@ -0,0 +1,61 @@
+package com.likhith.springsecurity.loadtest;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Shared state of a run: the seeded users, their tokens and the pool of users reserved for password resets
+class LoadTestContext {
+
+    static final String PASSWORD = "LoadTest#2024";
+    static final String MAIL_DELIVERY = "mail:otp";
+
+    private final LoadTestEnvironment environment;
+    private final LoadTestClient client;
+    private final List<String> users;
+    private final List<String> tokens;
+    // a reset user is only used by one flow at a time, otherwise a second OTP would invalidate the first
+    private final Queue<String> resetUsers;
+
+    LoadTestContext(LoadTestEnvironment environment, LoadTestClient client, List<String> users, List<String> tokens, List<String> resetUsers) {
+        this.environment = environment;
+        this.client = client;
+        this.users = List.copyOf(users);
+        this.tokens = List.copyOf(tokens);
+        this.resetUsers = new ConcurrentLinkedQueue<>(resetUsers);
+    }
+
+    LoadTestClient client() {
+        return client;
+    }
+
+    String randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    String randomToken() {
+        return tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+    }
+
+    String borrowResetUser() {
+        String email = resetUsers.poll();
+        if (email == null) {
+            // every reset user is busy; counted so an undersized pool is visible in the report
+            client.record("reset:pool-exhausted", System.nanoTime(), 0);
+        }
+        return email;
+    }
+
+    void returnResetUser(String email) {
+        resetUsers.add(email);
+    }
+
+    // time from the request that triggered the mail until it sits in the inbox; status 0 when it never arrived
+    String awaitOtp(String email) throws InterruptedException {
+        long start = System.nanoTime();
+        String otp = environment.awaitOtp(email, Scenario.MAIL_TIMEOUT);
+        client.record(MAIL_DELIVERY, start, otp == null ? 0 : 200);
+        return otp;
+    }
+}
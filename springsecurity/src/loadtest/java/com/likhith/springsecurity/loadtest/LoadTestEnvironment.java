@@ -0,0 +1,114 @@
+package com.likhith.springsecurity.loadtest;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.likhith.springsecurity.SpringsecurityApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Postgres in a container, GreenMail as the SMTP server, and the application itself on a random port,
+// all in this JVM so the pool and queue gauges can be read straight from its MeterRegistry
+class LoadTestEnvironment implements AutoCloseable {
+
+    private static final Pattern OTP = Pattern.compile("\\b(\\d{6})\\b");
+
+    private final PostgreSQLContainer<?> postgres;
+    private final GreenMail greenMail;
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    LoadTestEnvironment(Map<String, Object> overrides) {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", greenMail.getSmtp().getPort());
+        properties.put("spring.mail.properties.mail.smtp.from", "loadtest@example.com");
+        properties.put("jwt.secret.key", Base64.getEncoder().encodeToString(secret));
+        properties.put("jwt.access-token.expiration", "1h");
+        properties.put("GOOGLE_CLIENT_ID", "loadtest");
+        properties.put("GOOGLE_CLIENT_SECRET", "loadtest");
+        properties.put("GOOGLE_REDIRECT_URI", "http://localhost/login/oauth2/code/google");
+        // every request comes from one IP and a small user pool, which the per-IP/email limits would throttle
+        properties.put("rate-limit.enabled", false);
+        properties.put("mail.outbox.poll-interval", "100ms");
+        properties.putAll(overrides);
+
+        context = new SpringApplicationBuilder(SpringsecurityApplication.class)
+                .properties(properties)
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://127.0.0.1:" + port;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    MeterRegistry meterRegistry() {
+        return context.getBean(MeterRegistry.class);
+    }
+
+    // Waits for the next OTP mail to this address and empties the mailbox, so later flows do not see it
+    String awaitOtp(String email, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            GreenMailUser user = greenMail.getUserManager().getUserByEmail(email);
+            if (user != null) {
+                try {
+                    MailFolder inbox = greenMail.getManagers().getImapHostManager().getInbox(user);
+                    List<StoredMessage> messages = inbox.getMessages();
+                    if (!messages.isEmpty()) {
+                        String body = messages.get(messages.size() - 1).getMimeMessage().getContent().toString();
+                        inbox.deleteAllMessages();
+                        Matcher matcher = OTP.matcher(body);
+                        if (matcher.find()) {
+                            return matcher.group(1);
+                        }
+                    }
+                } catch (FolderException | MessagingException | IOException ex) {
+                    throw new IllegalStateException("Could not read mail for " + email, ex);
+                }
+            }
+            Thread.sleep(20);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        greenMail.stop();
+        postgres.stop();
+    }
+}
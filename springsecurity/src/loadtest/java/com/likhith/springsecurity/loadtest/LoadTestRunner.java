@@ -0,0 +1,191 @@
+package com.likhith.springsecurity.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+// End-to-end load test against the real application, Postgres (Testcontainers) and an SMTP stand-in (GreenMail).
+//
+//   mvn -Ploadtest test-compile exec:exec [-Dloadtest.rps=100 -Dloadtest.duration=60s -Dloadtest.users=500]
+//
+// Runs every scenario on its own and then the configured mix, each at a fixed arrival rate (open model):
+// a slow server does not slow the generator down, it shows up as latency and in-flight requests.
+// The suite runs once per loadtest.threads mode (platform, virtual) so request handling on Tomcat's
+// worker pool can be compared with spring.threads.virtual.enabled under the same mix.
+// Results are printed and written to target/loadtest-result.json.
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        double rps = Double.parseDouble(System.getProperty("loadtest.rps", "50"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s"));
+        int users = Integer.getInteger("loadtest.users", 200);
+        Map<Scenario, Integer> mix = parseMix(System.getProperty("loadtest.mix", "LOGIN=50,PROFILE=35,SIGNUP=10,RESET_PASSWORD=5"));
+        Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest-result.json"));
+
+        List<String> threadModes = List.of(System.getProperty("loadtest.threads", "platform,virtual").split(","));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rps", rps);
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("users", users);
+        result.put("mix", mix);
+        Map<String, Object> runs = new LinkedHashMap<>();
+        // each thread mode gets a fresh database and application so the runs do not share warm state
+        for (String threads : threadModes) {
+            boolean virtual = threads.trim().equals("virtual");
+            System.out.printf("Running with %s threads%n", virtual ? "virtual" : "platform");
+            runs.put(virtual ? "virtual" : "platform", runSuite(virtual, rps, duration, warmup, users, mix));
+        }
+        result.put("runs", runs);
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), result);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static List<Map<String, Object>> runSuite(boolean virtualThreads, double rps, Duration duration, Duration warmup,
+                                                      int users, Map<Scenario, Integer> mix) throws InterruptedException {
+        try (LoadTestEnvironment environment = new LoadTestEnvironment(Map.of("spring.threads.virtual.enabled", virtualThreads))) {
+            LoadTestClient client = new LoadTestClient(environment.baseUrl());
+            LoadTestContext context = seed(environment, client, users);
+
+            // JIT, connection pool and caches warm up under the mix; not reported
+            runPhase(environment, context, mix, rps, warmup);
+            client.swapStats();
+
+            List<Map<String, Object>> phases = new ArrayList<>();
+            for (Scenario scenario : mix.keySet()) {
+                phases.add(report(scenario.name(), rps, runPhase(environment, context, Map.of(scenario, 1), rps, duration), client));
+            }
+            phases.add(report("MIXED", rps, runPhase(environment, context, mix, rps, duration), client));
+            print(phases);
+            return phases;
+        }
+    }
+
+    // registers the users the scenarios work on and logs the profile users in once for their bearer tokens
+    private static LoadTestContext seed(LoadTestEnvironment environment, LoadTestClient client, int users) throws InterruptedException {
+        List<String> emails = IntStream.range(0, users).mapToObj(i -> "user-" + i + "@loadtest.local").toList();
+        List<String> resetEmails = IntStream.range(0, Math.max(20, users / 4)).mapToObj(i -> "reset-" + i + "@loadtest.local").toList();
+        List<String> tokens = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (String email : emails) {
+                executor.submit(() -> {
+                    client.post("/register", Map.of("name", "Load Test", "email", email, "password", LoadTestContext.PASSWORD), null, System.nanoTime());
+                    String token = client.post("/login", Map.of("email", email, "password", LoadTestContext.PASSWORD), null, System.nanoTime()).field("token");
+                    if (token != null) {
+                        tokens.add(token);
+                    }
+                });
+            }
+            for (String email : resetEmails) {
+                executor.submit(() -> client.post("/register", Map.of("name", "Load Test", "email", email, "password", LoadTestContext.PASSWORD), null, System.nanoTime()));
+            }
+        }
+        client.swapStats();
+        if (tokens.isEmpty()) {
+            throw new IllegalStateException("Seeding failed, no user could log in");
+        }
+        System.out.printf("Seeded %d users (%d with tokens) and %d reset users%n", emails.size(), tokens.size(), resetEmails.size());
+        return new LoadTestContext(environment, client, emails, tokens, resetEmails);
+    }
+
+    // Starts scenarios at a fixed rate for the given time, one virtual thread each, then waits for stragglers
+    private static PhaseOutcome runPhase(LoadTestEnvironment environment, LoadTestContext context, Map<Scenario, Integer> weights,
+                                         double rps, Duration duration) throws InterruptedException {
+        Scenario[] wheel = weights.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Scenario[]::new);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ResourceSampler sampler = new ResourceSampler(environment.meterRegistry())) {
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+                long scheduled = due;
+                executor.submit(() -> {
+                    scenario.run(context, scheduled);
+                    return null;
+                });
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
+                System.err.println("Some scenarios were still running after the phase ended");
+                executor.shutdownNow();
+            }
+            // elapsed time includes the stragglers, so throughput is not overstated
+            return new PhaseOutcome((System.nanoTime() - start) / 1e9, sampler.report());
+        }
+    }
+
+    private static Map<String, Object> report(String name, double rps, PhaseOutcome outcome, LoadTestClient client) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        new TreeMap<>(client.swapStats()).forEach((endpoint, stats) -> endpoints.put(endpoint, stats.report(outcome.seconds())));
+        Map<String, Object> phase = new LinkedHashMap<>();
+        phase.put("phase", name);
+        phase.put("offeredRps", rps);
+        phase.put("seconds", Math.round(outcome.seconds() * 10) / 10.0);
+        phase.put("endpoints", endpoints);
+        phase.put("resources", outcome.resources());
+        return phase;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(List<Map<String, Object>> phases) {
+        String format = "%-15s %-22s %9s %7s %9s %9s %9s %9s %9s%n";
+        System.out.printf(format, "phase", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> phase : phases) {
+            Map<String, Object> endpoints = (Map<String, Object>) phase.get("endpoints");
+            endpoints.forEach((endpoint, value) -> {
+                Map<String, Object> stats = (Map<String, Object>) value;
+                System.out.printf(format, phase.get("phase"), endpoint, stats.get("requests"), stats.get("errors"), stats.get("throughputPerSecond"),
+                        stats.get("p50Ms"), stats.get("p99Ms"), stats.get("p999Ms"), stats.get("maxMs"));
+            });
+            System.out.printf("%-15s resources: %s%n", phase.get("phase"), phase.get("resources"));
+        }
+    }
+
+    // LOGIN=50,PROFILE=35 -> relative weights, in the given order
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Scenario.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no scenario: " + mix);
+        }
+        return weights;
+    }
+
+    private record PhaseOutcome(double seconds, Map<String, Object> resources) {
+    }
+}
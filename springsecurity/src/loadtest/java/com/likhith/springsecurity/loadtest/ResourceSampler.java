@@ -0,0 +1,74 @@
+package com.likhith.springsecurity.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Samples the saturation gauges every 50ms during a phase: Hikari connections, the BCrypt pool queue
+// and the mail queue, i.e. the places where a request can wait instead of work
+class ResourceSampler implements AutoCloseable {
+
+    private static final String[] GAUGES = {
+            "hikaricp.connections.active",
+            "hikaricp.connections.pending",
+            "security.password.hashing.queue.depth",
+            "security.password.hashing.active",
+            "mail.queue.depth",
+            "db.connection.admission.waiting",
+            "jvm.threads.live"
+    };
+
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, double[]> stats = new LinkedHashMap<>();
+    private long samples;
+    private long samplesWithPendingConnections;
+
+    ResourceSampler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (String gauge : GAUGES) {
+            // max, sum
+            stats.put(gauge, new double[2]);
+        }
+        scheduler.scheduleAtFixedRate(this::sample, 0, 50, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sample() {
+        samples++;
+        for (String name : GAUGES) {
+            Gauge gauge = meterRegistry.find(name).gauge();
+            double value = gauge == null ? 0 : gauge.value();
+            double[] stat = stats.get(name);
+            stat[0] = Math.max(stat[0], value);
+            stat[1] += value;
+            if (name.equals("hikaricp.connections.pending") && value > 0) {
+                samplesWithPendingConnections++;
+            }
+        }
+    }
+
+    synchronized Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        Gauge maxConnections = meterRegistry.find("hikaricp.connections.max").gauge();
+        report.put("hikariMaxConnections", maxConnections == null ? null : (long) maxConnections.value());
+        // share of the phase during which at least one thread was waiting for a connection
+        report.put("hikariSaturatedFraction", samples == 0 ? 0 : Math.round(1000.0 * samplesWithPendingConnections / samples) / 1000.0);
+        stats.forEach((name, stat) -> {
+            Map<String, Object> gauge = new LinkedHashMap<>();
+            gauge.put("max", stat[0]);
+            gauge.put("avg", samples == 0 ? 0 : Math.round(100 * stat[1] / samples) / 100.0);
+            report.put(name, gauge);
+        });
+        return report;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
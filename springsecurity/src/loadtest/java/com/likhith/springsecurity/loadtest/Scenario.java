@@ -0,0 +1,71 @@
+package com.likhith.springsecurity.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+// One user journey, started at the phase's target rate. Each HTTP call is recorded under its path.
+enum Scenario {
+
+    // password login of an existing user: BCrypt plus the user lookup
+    LOGIN {
+        @Override
+        void run(LoadTestContext context, long dueNanos) {
+            String email = context.randomUser();
+            context.client().post("/login", Map.of("email", email, "password", LoadTestContext.PASSWORD), null, dueNanos);
+        }
+    },
+    // authenticated read: JWT verification plus one indexed query
+    PROFILE {
+        @Override
+        void run(LoadTestContext context, long dueNanos) {
+            context.client().get("/profile", context.randomToken(), dueNanos);
+        }
+    },
+    // register, log in, request the verification OTP, read it from the mailbox and verify
+    SIGNUP {
+        @Override
+        void run(LoadTestContext context, long dueNanos) throws InterruptedException {
+            String email = "signup-" + UUID.randomUUID() + "@loadtest.local";
+            LoadTestClient client = context.client();
+            if (!client.post("/register", Map.of("name", "Load Test", "email", email, "password", LoadTestContext.PASSWORD), null, dueNanos).ok()) {
+                return;
+            }
+            LoadTestClient.Response login = client.post("/login", Map.of("email", email, "password", LoadTestContext.PASSWORD), null, System.nanoTime());
+            String token = login.field("token");
+            if (token == null || !client.post("/send-otp", null, token, System.nanoTime()).ok()) {
+                return;
+            }
+            String otp = context.awaitOtp(email);
+            if (otp != null) {
+                client.post("/verify-otp", Map.of("otp", otp), token, System.nanoTime());
+            }
+        }
+    },
+    // forgotten password: reset OTP by mail, then a new password (the same one, so the user stays usable)
+    RESET_PASSWORD {
+        @Override
+        void run(LoadTestContext context, long dueNanos) throws InterruptedException {
+            String email = context.borrowResetUser();
+            if (email == null) {
+                return;
+            }
+            try {
+                LoadTestClient client = context.client();
+                if (!client.post("/send-reset-otp?email=" + email, null, null, dueNanos).ok()) {
+                    return;
+                }
+                String otp = context.awaitOtp(email);
+                if (otp != null) {
+                    client.post("/reset-password", Map.of("email", email, "otp", otp, "newPassword", LoadTestContext.PASSWORD), null, System.nanoTime());
+                }
+            } finally {
+                context.returnResetUser(email);
+            }
+        }
+    };
+
+    static final Duration MAIL_TIMEOUT = Duration.ofSeconds(30);
+
+    abstract void run(LoadTestContext context, long dueNanos) throws InterruptedException;
+}
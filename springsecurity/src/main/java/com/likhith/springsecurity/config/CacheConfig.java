@@ -0,0 +1,12 @@
+package com.likhith.springsecurity.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // size/TTL are set through spring.cache.caffeine.spec, hit/miss/eviction counts are published as cache.* metrics
+    public static final String USER_DETAILS_CACHE = "userDetails";
+}
@@ -0,0 +1,35 @@
+package com.likhith.springsecurity.config;
+
+import com.likhith.springsecurity.util.ConnectionAdmissionDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+// Puts ConnectionAdmissionDataSource in front of the Hikari pool, sized to its maximum-pool-size.
+// On by default in virtual-thread mode (datasource.admission.enabled follows spring.threads.virtual.enabled).
+@Configuration
+@ConditionalOnProperty(name = "datasource.admission.enabled", havingValue = "true")
+public class ConnectionAdmissionConfig {
+
+    @Bean
+    static BeanPostProcessor connectionAdmissionPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        Duration timeout = environment.getProperty("datasource.admission.timeout", Duration.class, Duration.ofSeconds(2));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Boot's Hikari metrics and health unwrap DelegatingDataSource, so they still see the pool
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionAdmissionDataSource(hikari, hikari.getMaximumPoolSize(), timeout, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
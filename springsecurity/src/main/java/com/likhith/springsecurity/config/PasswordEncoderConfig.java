@@ -0,0 +1,62 @@
+package com.likhith.springsecurity.config;
+
+import com.likhith.springsecurity.util.BCryptStrengthCalibrator;
+import com.likhith.springsecurity.util.BoundedPasswordEncoder;
+import com.likhith.springsecurity.util.PasswordHashingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Shared by the servlet and the reactive security configuration
+@Configuration
+@RequiredArgsConstructor
+public class PasswordEncoderConfig {
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.encoder:bcrypt}")
+    private String passwordEncoderId;
+
+    @Value("${security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.bcrypt.calibrate:false}")
+    private boolean bcryptCalibrate;
+
+    @Value("${security.password.bcrypt.target-time:250ms}")
+    private Duration bcryptTargetTime;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        // The cost is pinned: every node must hash with the same one, or upgradeEncoding would rehash
+        // each user to the cost of whichever node they last logged in on. Calibration only logs a value.
+        if (bcryptCalibrate) {
+            BCryptStrengthCalibrator.recommend(bcryptTargetTime, bcryptMinStrength, bcryptStrength);
+        }
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        // new hashes are stored as {id}hash; any hash with another id or a lower cost is rehashed on login
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        // hashes written before the {id} prefix was introduced are bare BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor, meterRegistry);
+    }
+}
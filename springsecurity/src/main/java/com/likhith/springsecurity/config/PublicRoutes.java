@@ -0,0 +1,75 @@
+package com.likhith.springsecurity.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// The one list of endpoints reachable without a token. SecurityConfig permits them and JwtRequestFilter
+// skips them entirely. Literal paths are answered by a hash lookup, the rest by patterns compiled once.
+@Component
+public class PublicRoutes implements RequestMatcher {
+
+    public static final List<String> PATTERNS = List.of(
+            "/login",
+            "/register",
+            "/refresh",
+            "/.well-known/jwks.json",
+            "/send-reset-otp",
+            "/reset-password",
+            "/logout",
+            "/error",
+
+            "/oauth2/**",
+            "/login/oauth2/**",
+
+            "/swagger-ui.html",
+            "/swagger-ui/**",
+            "/api-docs/**",
+            "/swagger-resources/**",
+            "/webjars/**",
+
+            "/v3/api-docs/**"
+    );
+
+    private final Set<String> literalPaths;
+    private final List<PathPattern> pathPatterns;
+
+    public PublicRoutes() {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        this.literalPaths = PATTERNS.stream()
+                .filter(pattern -> !parser.parse(pattern).hasPatternSyntax())
+                .collect(Collectors.toUnmodifiableSet());
+        this.pathPatterns = PATTERNS.stream()
+                .map(parser::parse)
+                .filter(PathPattern::hasPatternSyntax)
+                .toList();
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return matches(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    public boolean matches(String path) {
+        if (literalPaths.contains(path)) {
+            return true;
+        }
+        if (pathPatterns.isEmpty()) {
+            return false;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PathPattern pattern : pathPatterns) {
+            if (pattern.matches(pathContainer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
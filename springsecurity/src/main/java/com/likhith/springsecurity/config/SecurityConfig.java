@@ -1,10 +1,16 @@
 package com.likhith.springsecurity.config;
 
 import com.likhith.springsecurity.filter.JwtRequestFilter;
+import com.likhith.springsecurity.filter.RateLimitFilter;
 import com.likhith.springsecurity.oauth.CustomOAuth2UserService;
 import com.likhith.springsecurity.oauth.OAuth2LoginSuccessHandler;
 import com.likhith.springsecurity.service.AppUserDetailsService;
+import com.likhith.springsecurity.service.UserAuthorities;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,7 +21,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
@@ -32,15 +37,19 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final AppUserDetailsService appUserDetailsService;
     private final JwtRequestFilter jwtRequestFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final PublicRoutes publicRoutes;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
+    private final PasswordEncoder passwordEncoder;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -48,25 +57,10 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/login",
-                                "/register",
-                                "/send-reset-otp",
-                                "/reset-password",
-                                "/logout",
-                                "/error",
-
-                                "/oauth2/**",
-                                "/login/oauth2/**",
-
-                                "/swagger-ui.html",
-                                "/swagger-ui/**",
-                                "/api-docs/**",
-                                "/swagger-resources/**",
-                                "/webjars/**",
-
-                                "/v3/api-docs/**"
-                        ).permitAll()
+                        .requestMatchers(publicRoutes).permitAll()
+                        .requestMatchers("/admin/**").hasRole(UserAuthorities.ADMIN)
+                        // metrics, caches and prometheus expose per-user and operational detail
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).hasRole(UserAuthorities.ADMIN)
                         .anyRequest().authenticated()
                 )
 
@@ -80,14 +74,19 @@ public class SecurityConfig {
                 )
                 .logout(logout -> logout.disable())
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+                // after the JWT filter so /send-otp can be keyed by the authenticated email
+                .addFilterAfter(rateLimitFilter, JwtRequestFilter.class)
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(customAuthenticationEntryPoint))
 
                 .build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        // only run inside the security filter chain, not a second time as a plain servlet filter
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
@@ -97,23 +96,28 @@ public class SecurityConfig {
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    // also applied by the reactive stack (ReactiveSecurityConfig)
+    public static CorsConfiguration corsConfiguration() {
         CorsConfiguration config = new CorsConfiguration();
 //        config.setAllowedOrigins(List.of("https://springsecurityvault.netlify.app"));
         config.setAllowedOriginPatterns(List.of("https://springsecurityvault.netlify.app"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
         config.setAllowCredentials(true);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", config);
-        return source;
+        return config;
     }
 
     @Bean
     public AuthenticationManager authenticationManager() {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(appUserDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(appUserDetailsService);
         return new ProviderManager(authenticationProvider);
     }
 }
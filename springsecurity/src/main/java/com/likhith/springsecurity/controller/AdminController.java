@@ -0,0 +1,64 @@
+package com.likhith.springsecurity.controller;
+
+import com.likhith.springsecurity.io.ImportResponse;
+import com.likhith.springsecurity.service.UserBulkService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+// Restricted to ROLE_ADMIN (accounts listed in admin.emails) by SecurityConfig
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/admin/users")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "JWT")
+@Tag(name = "Admin", description = "Bulk user import and export")
+public class AdminController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private final UserBulkService userBulkService;
+
+    // The body is read as a stream, one user per line: {"name","email","password"|"passwordHash","isAccountVerified"}
+    // for NDJSON, or the same names as a CSV header. Rejected rows are listed in the response, the rest is imported.
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV})
+    public ImportResponse importUsers(HttpServletRequest request) throws IOException {
+        UserBulkService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? UserBulkService.Format.CSV
+                : UserBulkService.Format.NDJSON;
+        try {
+            return userBulkService.importUsers(request.getInputStream(), format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Password hashes are only exported on request, for moving users to another deployment
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "false") boolean includePasswordHash) {
+        UserBulkService.Format exportFormat = switch (format.toLowerCase()) {
+            case "ndjson" -> UserBulkService.Format.NDJSON;
+            case "csv" -> UserBulkService.Format.CSV;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        };
+        String extension = exportFormat == UserBulkService.Format.CSV ? "csv" : "ndjson";
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat == UserBulkService.Format.CSV ? CSV : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + extension + "\"")
+                .body(output -> userBulkService.exportUsers(output, exportFormat, includePasswordHash));
+    }
+}
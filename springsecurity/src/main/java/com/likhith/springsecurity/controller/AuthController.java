@@ -4,13 +4,25 @@ import com.likhith.springsecurity.io.AuthRequest;
 import com.likhith.springsecurity.io.AuthResponse;
 import com.likhith.springsecurity.io.ResetPasswordRequest;
 import com.likhith.springsecurity.service.AppUserDetailsService;
+import com.likhith.springsecurity.service.InvalidRefreshTokenException;
 import com.likhith.springsecurity.service.ProfileService;
+import com.likhith.springsecurity.service.RefreshTokenService;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.util.AuthCookies;
+import com.likhith.springsecurity.util.EmailNormalizer;
 import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.OutcomeTimer;
+import com.likhith.springsecurity.util.PasswordHashingRejectedException;
+import com.likhith.springsecurity.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
@@ -26,11 +38,11 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @SecurityRequirement(name = "JWT")
 @Tag(name = "Authentication", description = "Login, Register, Logout, OTP, Reset")
@@ -40,41 +52,89 @@ public class AuthController {
     private final AppUserDetailsService appUserDetailsService;
     private final JwtUtil jwtUtil;
     private final ProfileService profileService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    private final MeterRegistry meterRegistry;
+
+    private OutcomeTimer loginTimer;
+
+    @PostConstruct
+    public void init() {
+        loginTimer = new OutcomeTimer(meterRegistry, "security.login", "End-to-end time of a password login");
+    }
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
+        long start = System.nanoTime();
+        String outcome = "error";
         try {
             authenticate(request.getEmail(), request.getPassword());
 
             final UserDetails userDetails = appUserDetailsService.loadUserByUsername(request.getEmail());
             final String jwtToken = jwtUtil.generateToken(userDetails);
+            final String refreshToken = refreshTokenService.issue(userDetails.getUsername());
 
-            ResponseCookie responseCookie = ResponseCookie.from("jwt", jwtToken)
-                    .httpOnly(true)
-                    .secure(true)
-                    .path("/")
-                    .maxAge(Duration.ofDays(1))
-                    .sameSite("None")
-                    .build();
+            ResponseCookie responseCookie = AuthCookies.accessToken(jwtToken, jwtUtil.getAccessTokenExpiration());
+            ResponseCookie refreshCookie = AuthCookies.refreshToken(refreshToken, refreshTokenService.getRefreshTokenExpiration());
 
-            return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, responseCookie.toString())
+            outcome = "success";
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, responseCookie.toString())
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie.toString())
                     .body(new AuthResponse(request.getEmail(), jwtToken));
 
         } catch (BadCredentialsException ex) {
+            outcome = "bad-credentials";
             Map<String, Object> error = new HashMap<>();
             error.put("error", true);
             error.put("message", "Invalid email or password");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (DisabledException ex){
+            outcome = "disabled";
             Map<String, Object> error = new HashMap<>();
             error.put("error", true);
             error.put("message", "Account is Disable");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        } catch (PasswordHashingRejectedException ex) {
+            outcome = "rejected";
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", true);
+            error.put("message", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         }catch (Exception ex){
             Map<String, Object> error = new HashMap<>();
             error.put("error", true);
             error.put("message", "Authorization failed");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        } finally {
+            loginTimer.record(start, outcome);
+        }
+    }
+
+    // Exchanges the refresh token cookie for a new access token; the refresh token is rotated on every call
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@CookieValue(name = AuthCookies.REFRESH_TOKEN, required = false) String refreshToken) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+            final UserDetails userDetails = appUserDetailsService.loadUserByUsername(rotation.email());
+            final String jwtToken = jwtUtil.generateToken(userDetails);
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, AuthCookies.accessToken(jwtToken, jwtUtil.getAccessTokenExpiration()).toString())
+                    .header(HttpHeaders.SET_COOKIE, AuthCookies.refreshToken(rotation.refreshToken(), refreshTokenService.getRefreshTokenExpiration()).toString())
+                    .body(new AuthResponse(rotation.email(), jwtToken));
+
+        } catch (InvalidRefreshTokenException | UsernameNotFoundException ex) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", true);
+            error.put("message", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, AuthCookies.clear(AuthCookies.REFRESH_TOKEN).toString())
+                    .body(error);
         }
     }
 
@@ -92,7 +152,7 @@ public class AuthController {
     @PostMapping("/send-reset-otp")
     public void sendResetOtp(@RequestParam String email){
         try {
-            profileService.sendResetOtp(email);
+            profileService.sendResetOtp(EmailNormalizer.normalize(email));
         }catch (Exception e){
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
@@ -107,6 +167,8 @@ public class AuthController {
             return ResponseEntity.badRequest().body(ex.getMessage());
         } catch (UsernameNotFoundException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        } catch (PasswordHashingRejectedException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(ex.getMessage());
         } catch (Exception ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong. Please try again.");
         }
@@ -142,17 +204,28 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
-        ResponseCookie cookie = ResponseCookie.from("jwt", "")
-                .httpOnly(true)
-                .secure(true)
-                .path("/")
-                .maxAge(0)
-                .sameSite("None")
-                .build();
+    public ResponseEntity<?> logout(HttpServletResponse response,
+                                    @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorizationHeader,
+                                    @CookieValue(name = AuthCookies.ACCESS_TOKEN, required = false) String accessToken,
+                                    @CookieValue(name = AuthCookies.REFRESH_TOKEN, required = false) String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+
+        // the access token would otherwise stay usable until it expires
+        String jwt = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : accessToken;
+        if (jwt != null) {
+            try {
+                VerifiedToken token = jwtUtil.verify(jwt);
+                tokenRevocationService.revoke(token.jti(), token.expiration());
+            } catch (JwtException | IllegalArgumentException ex) {
+                // already invalid or expired, nothing to revoke
+            }
+        }
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .header(HttpHeaders.SET_COOKIE, AuthCookies.clear(AuthCookies.ACCESS_TOKEN).toString())
+                .header(HttpHeaders.SET_COOKIE, AuthCookies.clear(AuthCookies.REFRESH_TOKEN).toString())
                 .body("Logged out successfully");
     }
 }
@@ -0,0 +1,34 @@
+package com.likhith.springsecurity.controller;
+
+import com.likhith.springsecurity.service.JwksService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+// Public keys of the signing key ring, so other services can verify our tokens without calling us
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Tag(name = "Keys", description = "JSON Web Key Set for token verification")
+public class JwksController {
+
+    private final JwksService jwksService;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(WebRequest request) {
+        JwksService.Document current = jwksService.current();
+        if (request.checkNotModified(current.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksService.getMaxAge()).cachePublic())
+                .eTag(current.etag())
+                .body(current.json());
+    }
+}
@@ -2,17 +2,18 @@ package com.likhith.springsecurity.controller;
 
 import com.likhith.springsecurity.io.ProfileRequest;
 import com.likhith.springsecurity.io.ProfileResponse;
-import com.likhith.springsecurity.service.EmailService;
 import com.likhith.springsecurity.service.ProfileService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 //@RequestMapping("/api/v1.0")
 @RequiredArgsConstructor
 @SecurityRequirement(name = "JWT")
@@ -20,17 +21,12 @@ import org.springframework.web.bind.annotation.*;
 public class ProfileController {
 
     private final ProfileService profileService;
-    private final EmailService emailService;
 
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
     public ProfileResponse register(@Valid @RequestBody ProfileRequest request){
-        ProfileResponse response = profileService.createProfile(request);
-
-        //send Welcome Email
-        emailService.sendWelcomeEmail(response.getEmail(), response.getName());
-
-        return response;
+        // the welcome email is queued by createProfile in the same transaction
+        return profileService.createProfile(request);
     }
 
     @GetMapping("/test")
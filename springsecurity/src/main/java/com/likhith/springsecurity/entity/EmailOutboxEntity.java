@@ -0,0 +1,48 @@
+package com.likhith.springsecurity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "tbl_email_outbox", indexes = @Index(name = "idx_email_outbox_status", columnList = "status, id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String sender;
+    @Column(nullable = false)
+    private String recipient;
+    private String subject;
+    @Column(length = 4000)
+    private String body;
+    // the body carries a live secret (OTP); it is cleared once the row reaches SENT or FAILED
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean sensitive = false;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    private Integer attempts;
+    private Timestamp claimedAt;
+    private Timestamp sentAt;
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+}
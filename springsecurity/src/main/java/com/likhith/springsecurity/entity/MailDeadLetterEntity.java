@@ -0,0 +1,33 @@
+package com.likhith.springsecurity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "tbl_mail_dead_letters")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MailDeadLetterEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String recipient;
+    private String subject;
+    @Column(length = 4000)
+    private String body;
+    private Integer attempts;
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+}
@@ -0,0 +1,31 @@
+package com.likhith.springsecurity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "tbl_otps",
+        uniqueConstraints = @UniqueConstraint(name = "uk_otps_email_purpose", columnNames = {"email", "purpose"}),
+        indexes = @Index(name = "idx_otps_expires_at", columnList = "expiresAt"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OtpEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String email;
+    @Column(nullable = false, length = 32)
+    private String purpose;
+    @Column(nullable = false, length = 64)
+    private String otpHash;
+    @Column(nullable = false)
+    private Long expiresAt;
+    @Column(nullable = false)
+    private int failedAttempts;
+}
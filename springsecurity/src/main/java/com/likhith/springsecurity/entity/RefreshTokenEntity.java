@@ -0,0 +1,43 @@
+package com.likhith.springsecurity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "tbl_refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "familyId"),
+        // revokeAllForEmail on password reset
+        @Index(name = "idx_refresh_tokens_email", columnList = "email"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // SHA-256 of the token handed to the client; the raw value is never stored
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    @Column(nullable = false)
+    private String email;
+    // every token produced by rotating the same login shares a family
+    @Column(nullable = false, length = 36)
+    private String familyId;
+    @Column(nullable = false)
+    private Timestamp expiresAt;
+    private Timestamp usedAt;
+    private Timestamp revokedAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+}
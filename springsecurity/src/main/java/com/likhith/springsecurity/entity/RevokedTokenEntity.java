@@ -0,0 +1,32 @@
+package com.likhith.springsecurity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "tbl_revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedTokenEntity {
+    // jti of the revoked access token
+    @Id
+    @Column(length = 36)
+    private String jti;
+    // the token's own exp; once it has passed the row is useless and gets purged
+    @Column(nullable = false)
+    private Timestamp expiresAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp revokedAt;
+}
@@ -0,0 +1,37 @@
+package com.likhith.springsecurity.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "tbl_signing_keys")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SigningKeyEntity {
+    @Id
+    @Column(length = 36)
+    private String kid;
+    @Column(nullable = false, length = 16)
+    private String algorithm;
+    // X.509 encoded, base64
+    @Column(nullable = false, length = 1024)
+    private String publicKey;
+    // PKCS#8 encoded, encrypted with PrivateKeyCipher
+    @Column(nullable = false, length = 2048)
+    private String encryptedPrivateKey;
+    // published in the JWKS from creation, used for signing from this moment on
+    @Column(nullable = false)
+    private Timestamp activatesAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+}
@@ -5,32 +5,41 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Check;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.sql.Timestamp;
+import java.util.UUID;
 
 @Entity
 @Table(name = "tbl_users")
+// emails are stored canonical (EmailNormalizer), so the unique index on email also rejects case variants and
+// lookups stay plain equality on that index (db/migration/V2__canonical_user_emails.sql)
+@Check(name = "ck_tbl_users_email_canonical", constraints = "email = lower(btrim(email))")
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class UserEntity {
+    // registrations and imports insert through native SQL that calls nextval inside the INSERT, so only the
+    // one-at-a-time OAuth2 signup goes through Hibernate here; a pooled allocation would not save it anything.
+    // allocationSize must match INCREMENT BY of tbl_users_seq (db/migration/V4__users_sequence_increment_by_one.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tbl_users_seq")
+    @SequenceGenerator(name = "tbl_users_seq", sequenceName = "tbl_users_seq", allocationSize = 1)
     private Long id;
+    // public id, a time-ordered UUIDv7 (see UuidV7) stored as a native 16-byte uuid
     @Column(unique = true)
-    private String userId;
+    private UUID userId;
     private String name;
     @Column(nullable = false, unique = true)
     private String email;
     private String password;
-    private String verifyOtp;
-    private String resetOtp;
     private Boolean isAccountVerified;
-    private Long verifyOtpExpireAt;
-    private Long resetOtpExpireAt;
+    // bumped to invalidate every token issued so far (null on rows created before the column existed)
+    @Builder.Default
+    private Long tokenVersion = 0L;
 
     @CreationTimestamp
     @Column(updatable = false)
@@ -1,14 +1,24 @@
 package com.likhith.springsecurity.filter;
 
+import com.likhith.springsecurity.config.PublicRoutes;
+import com.likhith.springsecurity.service.AppUserDetails;
 import com.likhith.springsecurity.service.AppUserDetailsService;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.service.TokenVersionRegistry;
+import com.likhith.springsecurity.util.AuthCookies;
 import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,25 +29,27 @@ import java.io.IOException;
 import java.util.List;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final AppUserDetailsService appUserDetailsService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final PublicRoutes publicRoutes;
 
-    private static final List<String> PUBLIC_URLS = List.of(
-            "/login", "/register", "/send-reset-otp", "/reset-password", "/logout", "/error", "/oauth2/**", "/login/oauth2/**", "/swagger-ui/**"
-    );
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
 
+    // public and static routes skip cookie scanning and token parsing entirely
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        String path = request.getServletPath();
-
-        if(PUBLIC_URLS.contains(path)){
-            filterChain.doFilter(request, response);
-            return;
-        }
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return publicRoutes.matches(request);
+    }
 
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String jwt = null;
         String email = null;
 
@@ -52,7 +64,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             Cookie[] cookies = request.getCookies();
             if(cookies != null){
                 for(Cookie cookie : cookies){
-                    if("jwt".equals(cookie.getName())){
+                    if(AuthCookies.ACCESS_TOKEN.equals(cookie.getName())){
                         jwt = cookie.getValue();
                         break;
                     }
@@ -60,12 +72,31 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             }
         }
 
-        //3. validate the token and set the security context
+        //3. validate the token (parsed and verified once) and set the security context
         if(jwt != null){
-            email = jwtUtil.extractEmail(jwt);
+            VerifiedToken token;
+            try {
+                token = jwtUtil.verify(jwt);
+            } catch (JwtException | IllegalArgumentException ex) {
+                // invalid or expired token: continue unauthenticated, the entry point answers 401
+                filterChain.doFilter(request, response);
+                return;
+            }
+            // revoked on logout, or minted before the user's last "log out everywhere"
+            if(tokenRevocationService.isRevoked(token.jti())
+                    || token.email() == null
+                    || !tokenVersionRegistry.isCurrent(token.email(), token.tokenVersion())){
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            email = token.email();
             if(email != null && SecurityContextHolder.getContext().getAuthentication() == null){
-                UserDetails userDetails = appUserDetailsService.loadUserByUsername(email);
-                if(jwtUtil.isTokenValid(jwt, userDetails )){
+                // stateless mode trusts the verified claims, otherwise the user is reloaded from the database
+                UserDetails userDetails = statelessEnabled
+                        ? toUserDetails(token)
+                        : appUserDetailsService.loadUserByUsername(email);
+                if(jwtUtil.isTokenValid(token, userDetails)){
                     UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -75,4 +106,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails toUserDetails(VerifiedToken token) {
+        List<SimpleGrantedAuthority> authorities = token.authorities().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new AppUserDetails(token.email(), "", authorities, token.userId(), token.tokenVersion());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.likhith.springsecurity.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.likhith.springsecurity.util.RateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+// Token-bucket throttling of the expensive endpoints (see RateLimiter), keyed by client IP and by target email.
+// Runs before the controllers, so a rejected request never reaches BCrypt, the database or the outbox.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_INSPECTED_BODY_BYTES = 16 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${rate-limit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${rate-limit.login.refill-period:1m}")
+    private Duration loginRefillPeriod;
+
+    @Value("${rate-limit.otp.capacity:3}")
+    private int otpCapacity;
+
+    @Value("${rate-limit.otp.refill-period:15m}")
+    private Duration otpRefillPeriod;
+
+    @Value("${rate-limit.otp-check.capacity:10}")
+    private int otpCheckCapacity;
+
+    @Value("${rate-limit.otp-check.refill-period:15m}")
+    private Duration otpCheckRefillPeriod;
+
+    private RateLimiter rateLimiter;
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = new RateLimiter(maxKeys, loginCapacity, loginRefillPeriod, otpCapacity, otpRefillPeriod,
+                otpCheckCapacity, otpCheckRefillPeriod);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || RateLimiter.target(request.getServletPath()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Target target = RateLimiter.target(request.getServletPath());
+        HttpServletRequest effectiveRequest = request;
+        String email;
+
+        switch (target) {
+            case LOGIN, RESET_PASSWORD -> {
+                CachedBodyHttpServletRequest cached = cacheBody(request);
+                if (cached.getBody().length > MAX_INSPECTED_BODY_BYTES) {
+                    response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                    return;
+                }
+                effectiveRequest = cached;
+                email = readEmail(cached);
+            }
+            case RESET_OTP -> email = request.getParameter("email");
+            default -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                email = authentication != null ? authentication.getName() : null;
+            }
+        }
+
+        long waitNanos = rateLimiter.tryConsume(target, request.getRemoteAddr(), email);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(waitNanos)));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": true, \"message\": \"Too many requests, please try again later\"}");
+    }
+
+    private CachedBodyHttpServletRequest cacheBody(HttpServletRequest request) throws IOException {
+        try (InputStream input = request.getInputStream()) {
+            return new CachedBodyHttpServletRequest(request, input.readNBytes(MAX_INSPECTED_BODY_BYTES + 1));
+        }
+    }
+
+    private String readEmail(CachedBodyHttpServletRequest request) {
+        byte[] body = request.getBody();
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException ex) {
+            // malformed JSON is rejected by the controller; the IP bucket still applies
+            return null;
+        }
+    }
+}
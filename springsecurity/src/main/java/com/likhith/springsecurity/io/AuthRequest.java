@@ -1,5 +1,6 @@
 package com.likhith.springsecurity.io;
 
+import com.likhith.springsecurity.util.EmailNormalizer;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -20,4 +21,9 @@ public class AuthRequest {
     @NotBlank(message = "Password must not be blank")
     @Size(min = 6, message = "Password must be at least 6 characters long")
     private String password;
+
+    // canonical form, so Foo@x.com and foo@x.com log into the same account and share one userDetails cache entry
+    public void setEmail(String email) {
+        this.email = EmailNormalizer.normalize(email);
+    }
 }
@@ -0,0 +1,23 @@
+package com.likhith.springsecurity.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+    private long imported;
+    private long rejected;
+    // only the first admin.import.max-reported-errors rejected rows are listed
+    private boolean errorsTruncated;
+    private List<RowError> errors;
+
+    public record RowError(long line, String email, String message) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.likhith.springsecurity.io;
 
+import com.likhith.springsecurity.util.EmailNormalizer;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,4 +23,9 @@ public class ProfileRequest {
     @NotBlank(message = "Password must not be blank")
     @Size(min = 6, message = "Password must be at least 6 characters long")
     private String password;
+
+    // stored as normalized here; a second registration differing only in case is a duplicate
+    public void setEmail(String email) {
+        this.email = EmailNormalizer.normalize(email);
+    }
 }
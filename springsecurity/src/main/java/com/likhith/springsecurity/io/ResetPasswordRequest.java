@@ -1,5 +1,6 @@
 package com.likhith.springsecurity.io;
 
+import com.likhith.springsecurity.util.EmailNormalizer;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,4 +18,9 @@ public class ResetPasswordRequest {
 
     @NotBlank(message = "Email must not be blank")
     private String email;
+
+    // same key the OTP was stored under and the userDetails cache entry is evicted by
+    public void setEmail(String email) {
+        this.email = EmailNormalizer.normalize(email);
+    }
 }
@@ -0,0 +1,14 @@
+package com.likhith.springsecurity.io;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+// One user as written by the admin export; built by a JPQL constructor expression, so rows are never managed entities
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserExportRow(UUID userId, String name, String email, Boolean isAccountVerified, String passwordHash) {
+
+    public UserExportRow withoutPasswordHash() {
+        return new UserExportRow(userId, name, email, isAccountVerified, null);
+    }
+}
@@ -2,7 +2,14 @@ package com.likhith.springsecurity.oauth;
 
 import com.likhith.springsecurity.entity.UserEntity;
 import com.likhith.springsecurity.repository.UserRepository;
+import com.likhith.springsecurity.util.EmailNormalizer;
+import com.likhith.springsecurity.util.OutcomeTimer;
+import com.likhith.springsecurity.util.UuidV7;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
@@ -12,16 +19,39 @@ import org.springframework.stereotype.Service;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private OutcomeTimer loadTimer;
+
+    @PostConstruct
+    public void init() {
+        loadTimer = new OutcomeTimer(meterRegistry, "security.oauth2.user.load", "Time to fetch the provider's user info and sync the local user");
+    }
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) {
+        long start = System.nanoTime();
+        try {
+            OAuth2User oAuth2User = loadAndSync(userRequest);
+            loadTimer.record(start, "success");
+            return oAuth2User;
+        } catch (OAuth2AuthenticationException ex) {
+            loadTimer.record(start, "rejected");
+            throw ex;
+        } catch (RuntimeException ex) {
+            loadTimer.record(start, "error");
+            throw ex;
+        }
+    }
+
+    private OAuth2User loadAndSync(OAuth2UserRequest userRequest) {
         OAuth2User oAuth2User = super.loadUser(userRequest);
 
         Map<String, Object> attributes = oAuth2User.getAttributes();
@@ -34,12 +64,14 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             String login = (String) attributes.get("login");
             email = login + "@github.com";
         }
+        // providers return the address as the user typed it at sign-up
+        email = EmailNormalizer.normalize(email);
 
         // Save user if not already present
         Optional<UserEntity> optionalUser = userRepository.findByEmail(email);
         if (optionalUser.isEmpty()) {
             UserEntity newUser = UserEntity.builder()
-                    .userId(UUID.randomUUID().toString())
+                    .userId(UuidV7.generate())
                     .email(email)
                     .name(name != null ? name : "GitHub User")
                     .password("") // OAuth users won't log in with password
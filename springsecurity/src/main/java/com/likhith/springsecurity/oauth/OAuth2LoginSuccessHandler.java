@@ -1,11 +1,16 @@
 package com.likhith.springsecurity.oauth;
 
+import com.likhith.springsecurity.service.AppUserDetailsService;
+import com.likhith.springsecurity.service.RefreshTokenService;
+import com.likhith.springsecurity.util.AuthCookies;
+import com.likhith.springsecurity.util.EmailNormalizer;
 import com.likhith.springsecurity.util.JwtUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -58,10 +63,13 @@ import java.util.List;
 //}
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
     private final JwtUtil jwtUtil;
+    private final AppUserDetailsService appUserDetailsService;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
@@ -83,19 +91,18 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
             return;
         }
 
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(email, "", List.of());
+        // CustomOAuth2UserService has already stored the user, load it so the token carries the same claims as /login
+        UserDetails userDetails = appUserDetailsService.loadUserByUsername(EmailNormalizer.normalize(email));
         String jwtToken = jwtUtil.generateToken(userDetails);
 
-        // Set secure JWT cookie with SameSite=None
-        ResponseCookie cookie = ResponseCookie.from("jwt", jwtToken)
-                .httpOnly(true)
-                .secure(true)
-                .sameSite("None")  // Required for cross-site (Netlify <-> Render)
-                .path("/")
-                .maxAge(24 * 60 * 60)
-                .build();
+        String refreshToken = refreshTokenService.issue(userDetails.getUsername());
 
-        response.setHeader("Set-Cookie", cookie.toString());
+        // Set secure JWT and refresh cookies with SameSite=None (required for cross-site Netlify <-> Render)
+        ResponseCookie cookie = AuthCookies.accessToken(jwtToken, jwtUtil.getAccessTokenExpiration());
+        ResponseCookie refreshCookie = AuthCookies.refreshToken(refreshToken, refreshTokenService.getRefreshTokenExpiration());
+
+        response.addHeader("Set-Cookie", cookie.toString());
+        response.addHeader("Set-Cookie", refreshCookie.toString());
 
         // ✅ Redirect back to frontend
         response.sendRedirect("https://springsecurityvault.netlify.app");
@@ -0,0 +1,119 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.config.PublicRoutes;
+import com.likhith.springsecurity.service.AppUserDetails;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.service.TokenVersionRegistry;
+import com.likhith.springsecurity.util.AuthCookies;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.UnknownSigningKeyException;
+import com.likhith.springsecurity.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+
+// Reactive counterpart of JwtRequestFilter: same token sources, same checks, same token format.
+// Signature verification runs on the event loop (CPU only) against the keys already loaded; a kid this node does not
+// know, forged or just created by another node, is verified on the bounded-elastic scheduler because finding it
+// reloads the key ring from the database. The revocation and token version checks answer from memory and only
+// fall back to their blocking queries on the same scheduler.
+// Added to the security chain by ReactiveSecurityConfig, deliberately not a bean so WebFlux does not run it twice.
+@RequiredArgsConstructor
+public class JwtWebFilter implements WebFilter {
+
+    private final ReactiveUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final PublicRoutes publicRoutes;
+    private final boolean statelessEnabled;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (publicRoutes.matches(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+
+        String jwt = resolveToken(request);
+        if (jwt == null) {
+            return chain.filter(exchange);
+        }
+        VerifiedToken token;
+        try {
+            token = jwtUtil.verifyWithLoadedKeys(jwt);
+        } catch (UnknownSigningKeyException ex) {
+            return Mono.fromCallable(() -> Optional.of(jwtUtil.verify(jwt)))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .onErrorResume(e -> e instanceof JwtException || e instanceof IllegalArgumentException, e -> Mono.just(Optional.empty()))
+                    .flatMap(verified -> verified
+                            .map(value -> authenticate(value, exchange, chain))
+                            .orElseGet(() -> chain.filter(exchange)));
+        } catch (JwtException | IllegalArgumentException ex) {
+            // invalid or expired token: continue unauthenticated, the entry point answers 401
+            return chain.filter(exchange);
+        }
+        return authenticate(token, exchange, chain);
+    }
+
+    private Mono<Void> authenticate(VerifiedToken token, ServerWebExchange exchange, WebFilterChain chain) {
+        if (token.email() == null) {
+            return chain.filter(exchange);
+        }
+
+        return isActive(token)
+                .filter(Boolean::booleanValue)
+                .flatMap(active -> statelessEnabled ? Mono.just(toUserDetails(token)) : userDetailsService.findByUsername(token.email()))
+                .filter(userDetails -> jwtUtil.isTokenValid(token, userDetails))
+                .map(userDetails -> Optional.<Authentication>of(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(value -> chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(value)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    // revoked on logout, or minted before the user's last "log out everywhere"
+    private Mono<Boolean> isActive(VerifiedToken token) {
+        Boolean current = tokenVersionRegistry.isCurrentIfCached(token.email(), token.tokenVersion());
+        if (current != null && !tokenRevocationService.mightBeRevoked(token.jti())) {
+            return Mono.just(current);
+        }
+        return Mono.fromCallable(() -> !tokenRevocationService.isRevoked(token.jti())
+                        && tokenVersionRegistry.isCurrent(token.email(), token.tokenVersion()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private String resolveToken(ServerHttpRequest request) {
+        //1. check the authorization header
+        String authorizationHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        //2. If not found in header, check cookies
+        HttpCookie cookie = request.getCookies().getFirst(AuthCookies.ACCESS_TOKEN);
+        return cookie != null ? cookie.getValue() : null;
+    }
+
+    private UserDetails toUserDetails(VerifiedToken token) {
+        List<SimpleGrantedAuthority> authorities = token.authorities().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new AppUserDetails(token.email(), "", authorities, token.userId(), token.tokenVersion());
+    }
+}
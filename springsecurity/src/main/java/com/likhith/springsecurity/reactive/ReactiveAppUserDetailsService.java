@@ -0,0 +1,79 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.config.CacheConfig;
+import com.likhith.springsecurity.repository.AuthView;
+import com.likhith.springsecurity.service.AppUserDetails;
+import com.likhith.springsecurity.service.PasswordUpgradeBatcher;
+import com.likhith.springsecurity.service.UserAuthorities;
+import com.likhith.springsecurity.util.OutcomeTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of AppUserDetailsService. Shares the in-memory userDetails cache (AuthView values), so
+// evictions on password or token version changes apply to both stacks; misses are loaded through R2DBC.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAppUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordUpgradeBatcher passwordUpgradeBatcher;
+    private final UserAuthorities userAuthorities;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    private OutcomeTimer lookupTimer;
+    private Cache userDetailsCache;
+
+    @PostConstruct
+    public void init() {
+        lookupTimer = new OutcomeTimer(meterRegistry, "security.user.lookup", "Time to load a user from the database");
+        userDetailsCache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String email) {
+        AuthView cached = userDetailsCache.get(email, AuthView.class);
+        if (cached != null) {
+            return Mono.just(toUserDetails(cached));
+        }
+        long start = System.nanoTime();
+        return userRepository.findByEmail(email)
+                .map(user -> {
+                    lookupTimer.record(start, "found");
+                    AuthView authView = toAuthView(user);
+                    userDetailsCache.put(email, authView);
+                    return toUserDetails(authView);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> lookupTimer.record(start, "not-found")));
+    }
+
+    // same batching as the servlet path: the write is deferred, the cache gets the new hash right away
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        passwordUpgradeBatcher.enqueue(user.getUsername(), user.getPassword(), newPassword);
+        AuthView upgraded = user instanceof AppUserDetails appUserDetails
+                ? AuthView.of(user.getUsername(), newPassword, appUserDetails.getUserId(), appUserDetails.getTokenVersion())
+                : AuthView.of(user.getUsername(), newPassword, null, 0);
+        userDetailsCache.put(user.getUsername(), upgraded);
+        return Mono.just(toUserDetails(upgraded));
+    }
+
+    private static AuthView toAuthView(UserRow user) {
+        return new AuthView(user.email(), user.password(), user.userId(), user.tokenVersion() == null ? 0 : user.tokenVersion());
+    }
+
+    private UserDetails toUserDetails(AuthView user) {
+        return new AppUserDetails(user.email(), user.password(), userAuthorities.forEmail(user.email()),
+                user.userId() == null ? null : user.userId().toString(), user.tokenVersion());
+    }
+}
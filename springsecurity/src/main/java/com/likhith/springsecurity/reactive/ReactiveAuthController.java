@@ -0,0 +1,261 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.io.AuthRequest;
+import com.likhith.springsecurity.io.AuthResponse;
+import com.likhith.springsecurity.io.ResetPasswordRequest;
+import com.likhith.springsecurity.service.InvalidRefreshTokenException;
+import com.likhith.springsecurity.service.ProfileService;
+import com.likhith.springsecurity.service.RefreshTokenService;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.util.AuthCookies;
+import com.likhith.springsecurity.util.EmailNormalizer;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.OutcomeTimer;
+import com.likhith.springsecurity.util.PasswordHashingRejectedException;
+import com.likhith.springsecurity.util.RateLimiter;
+import com.likhith.springsecurity.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+// Reactive counterpart of AuthController with the same routes and responses. Login runs end to end without
+// blocking an event loop; the OTP, reset and refresh flows reuse the transactional JPA services on bounded-elastic.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final ProfileService profileService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    private OutcomeTimer loginTimer;
+
+    @PostConstruct
+    public void init() {
+        loginTimer = new OutcomeTimer(meterRegistry, "security.login", "End-to-end time of a password login");
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<Object>> login(@Valid @RequestBody AuthRequest request, ServerWebExchange exchange) {
+        ResponseEntity<Object> throttled = throttle(RateLimiter.Target.LOGIN, exchange, request.getEmail());
+        if (throttled != null) {
+            return Mono.just(throttled);
+        }
+        long start = System.nanoTime();
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()))
+                .map(authentication -> (UserDetails) authentication.getPrincipal())
+                .flatMap(userDetails -> blocking(() -> refreshTokenService.issue(userDetails.getUsername()))
+                        .map(refreshToken -> {
+                            String jwtToken = jwtUtil.generateToken(userDetails);
+                            loginTimer.record(start, "success");
+                            return ResponseEntity.ok()
+                                    .header(HttpHeaders.SET_COOKIE, AuthCookies.accessToken(jwtToken, jwtUtil.getAccessTokenExpiration()).toString())
+                                    .header(HttpHeaders.SET_COOKIE, AuthCookies.refreshToken(refreshToken, refreshTokenService.getRefreshTokenExpiration()).toString())
+                                    .<Object>body(new AuthResponse(request.getEmail(), jwtToken));
+                        }))
+                .onErrorResume(ex -> Mono.just(loginFailed(start, ex)));
+    }
+
+    private ResponseEntity<Object> loginFailed(long start, Throwable ex) {
+        if (ex instanceof BadCredentialsException) {
+            loginTimer.record(start, "bad-credentials");
+            return error(HttpStatus.BAD_REQUEST, "Invalid email or password");
+        }
+        if (ex instanceof DisabledException) {
+            loginTimer.record(start, "disabled");
+            return error(HttpStatus.UNAUTHORIZED, "Account is Disable");
+        }
+        if (ex instanceof PasswordHashingRejectedException) {
+            loginTimer.record(start, "rejected");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", true, "message", ex.getMessage()));
+        }
+        loginTimer.record(start, "error");
+        return error(HttpStatus.UNAUTHORIZED, "Authorization failed");
+    }
+
+    // Exchanges the refresh token cookie for a new access token; the refresh token is rotated on every call
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<Object>> refresh(@CookieValue(name = AuthCookies.REFRESH_TOKEN, required = false) String refreshToken) {
+        return blocking(() -> refreshTokenService.rotate(refreshToken))
+                .flatMap(rotation -> userDetailsService.findByUsername(rotation.email())
+                        .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("Email not found " + rotation.email())))
+                        .map(userDetails -> {
+                            String jwtToken = jwtUtil.generateToken(userDetails);
+                            return ResponseEntity.ok()
+                                    .header(HttpHeaders.SET_COOKIE, AuthCookies.accessToken(jwtToken, jwtUtil.getAccessTokenExpiration()).toString())
+                                    .header(HttpHeaders.SET_COOKIE, AuthCookies.refreshToken(rotation.refreshToken(), refreshTokenService.getRefreshTokenExpiration()).toString())
+                                    .<Object>body(new AuthResponse(rotation.email(), jwtToken));
+                        }))
+                .onErrorResume(ex -> ex instanceof InvalidRefreshTokenException || ex instanceof UsernameNotFoundException,
+                        ex -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .header(HttpHeaders.SET_COOKIE, AuthCookies.clear(AuthCookies.REFRESH_TOKEN).toString())
+                                .body(Map.of("error", true, "message", ex.getMessage()))));
+    }
+
+    @GetMapping("/is-authenticated")
+    public ResponseEntity<Boolean> isAuthenticated(@CurrentSecurityContext(expression = "authentication?.name") String email) {
+        return ResponseEntity.ok(email != null);
+    }
+
+    @PostMapping("/send-reset-otp")
+    public Mono<ResponseEntity<Void>> sendResetOtp(@RequestParam String email, ServerWebExchange exchange) {
+        ResponseEntity<Object> throttled = throttle(RateLimiter.Target.RESET_OTP, exchange, email);
+        if (throttled != null) {
+            return Mono.just(ResponseEntity.status(throttled.getStatusCode()).headers(throttled.getHeaders()).build());
+        }
+        return blocking(() -> {
+            profileService.sendResetOtp(EmailNormalizer.normalize(email));
+            return ResponseEntity.ok().<Void>build();
+        }).onErrorMap(ex -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage()));
+    }
+
+    @PostMapping("/reset-password")
+    public Mono<ResponseEntity<String>> resetPassword(@Valid @RequestBody ResetPasswordRequest request, ServerWebExchange exchange) {
+        ResponseEntity<Object> throttled = throttle(RateLimiter.Target.RESET_PASSWORD, exchange, request.getEmail());
+        if (throttled != null) {
+            return Mono.just(tooManyRequests(throttled));
+        }
+        return blocking(() -> {
+            profileService.resetPassword(request.getEmail(), request.getOtp(), request.getNewPassword());
+            return ResponseEntity.ok("Password reset successfully");
+        }).onErrorResume(ex -> Mono.just(switch (ex) {
+            case IllegalArgumentException iae -> ResponseEntity.badRequest().body(iae.getMessage());
+            case UsernameNotFoundException unfe -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(unfe.getMessage());
+            case PasswordHashingRejectedException phre -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(phre.getMessage());
+            default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong. Please try again.");
+        }));
+    }
+
+    @PostMapping("/send-otp")
+    public Mono<ResponseEntity<Object>> sendVerifyOtp(@CurrentSecurityContext(expression = "authentication?.name") String email, ServerWebExchange exchange) {
+        ResponseEntity<Object> throttled = throttle(RateLimiter.Target.VERIFY_OTP, exchange, email);
+        if (throttled != null) {
+            return Mono.just(throttled);
+        }
+        return blocking(() -> {
+            profileService.sendOtp(email);
+            return ResponseEntity.ok().<Object>body("OTP sent successfully to your email.");
+        }).onErrorResume(ex -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to send OTP: " + ex.getMessage())));
+    }
+
+    @PostMapping("/verify-otp")
+    public Mono<ResponseEntity<String>> verifyEmail(
+            @RequestBody Map<String, Object> request,
+            @CurrentSecurityContext(expression = "authentication?.name") String email,
+            ServerWebExchange exchange) {
+
+        ResponseEntity<Object> throttled = throttle(RateLimiter.Target.VERIFY_EMAIL, exchange, email);
+        if (throttled != null) {
+            return Mono.just(tooManyRequests(throttled));
+        }
+        Object otpObj = request.get("otp");
+        if (otpObj == null || otpObj.toString().isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "OTP must not be null or empty"));
+        }
+
+        return blocking(() -> {
+            profileService.verifyOtp(email, otpObj.toString());
+            return ResponseEntity.ok("Email verified successfully");
+        }).onErrorResume(ex -> Mono.just(ResponseEntity.badRequest().body("Invalid or expired OTP")));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<String>> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorizationHeader,
+                                               @CookieValue(name = AuthCookies.ACCESS_TOKEN, required = false) String accessToken,
+                                               @CookieValue(name = AuthCookies.REFRESH_TOKEN, required = false) String refreshToken) {
+        // the access token would otherwise stay usable until it expires
+        String jwt = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : accessToken;
+        // /logout is public, so nothing upstream has verified the token yet; a kid this node has not loaded
+        // means a key-ring query, which must not run on the event loop
+        return blocking(() -> {
+            refreshTokenService.revoke(refreshToken);
+            VerifiedToken token = verifyQuietly(jwt);
+            if (token != null) {
+                tokenRevocationService.revoke(token.jti(), token.expiration());
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, AuthCookies.clear(AuthCookies.ACCESS_TOKEN).toString())
+                    .header(HttpHeaders.SET_COOKIE, AuthCookies.clear(AuthCookies.REFRESH_TOKEN).toString())
+                    .body("Logged out successfully");
+        });
+    }
+
+    // same buckets and limits as RateLimitFilter on the servlet stack, checked before any hashing or query
+    private ResponseEntity<Object> throttle(RateLimiter.Target target, ServerWebExchange exchange, String email) {
+        if (!rateLimitEnabled) {
+            return null;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String clientIp = remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown";
+        long waitNanos = rateLimiter.tryConsume(target, clientIp, email);
+        if (waitNanos == 0) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(waitNanos)))
+                .body(Map.of("error", true, "message", "Too many requests, please try again later"));
+    }
+
+    private static ResponseEntity<String> tooManyRequests(ResponseEntity<Object> throttled) {
+        return ResponseEntity.status(throttled.getStatusCode()).headers(throttled.getHeaders())
+                .body("Too many requests, please try again later");
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", true, "message", message));
+    }
+
+    // JPA and SMTP-queue work stays blocking, so it is moved off the event loop
+    private VerifiedToken verifyQuietly(String jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        try {
+            return jwtUtil.verify(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // already invalid or expired, nothing to revoke
+            return null;
+        }
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic());
+    }
+}
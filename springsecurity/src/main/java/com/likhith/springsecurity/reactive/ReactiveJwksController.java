@@ -0,0 +1,31 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.service.JwksService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveJwksController {
+
+    private final JwksService jwksService;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(ServerWebExchange exchange) {
+        JwksService.Document current = jwksService.current();
+        if (exchange.checkNotModified(current.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksService.getMaxAge()).cachePublic())
+                .eTag(current.etag())
+                .body(current.json());
+    }
+}
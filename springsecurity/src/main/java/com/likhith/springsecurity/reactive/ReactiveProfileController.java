@@ -0,0 +1,48 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.io.ProfileRequest;
+import com.likhith.springsecurity.io.ProfileResponse;
+import com.likhith.springsecurity.service.ProfileService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveProfileController {
+
+    private final ProfileService profileService;
+    private final ReactiveUserRepository userRepository;
+
+    // hashing and the transactional insert + welcome email stay in ProfileService, off the event loop
+    @PostMapping("/register")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ProfileResponse> register(@Valid @RequestBody ProfileRequest request) {
+        return Mono.fromCallable(() -> profileService.createProfile(request))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/test")
+    public String test() {
+        return "Auth is working";
+    }
+
+    @GetMapping("/profile")
+    public Mono<ProfileResponse> getProfile(@CurrentSecurityContext(expression = "authentication?.name") String email) {
+        return userRepository.findByEmail(email)
+                .map(user -> ProfileResponse.builder()
+                        .name(user.name())
+                        .email(user.email())
+                        .userId(user.userId() == null ? null : user.userId().toString())
+                        .isAccountVerified(user.isAccountVerified())
+                        .build())
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found " + email)));
+    }
+}
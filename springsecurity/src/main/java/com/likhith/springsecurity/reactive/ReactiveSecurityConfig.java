@@ -0,0 +1,115 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.config.PublicRoutes;
+import com.likhith.springsecurity.config.SecurityConfig;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.service.UserAuthorities;
+import com.likhith.springsecurity.service.TokenVersionRegistry;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// Security for the reactive variant (spring.main.web-application-type=reactive, see application-reactive.properties).
+// Same public routes, token format and stateless sessions as SecurityConfig; OAuth2 login stays on the servlet stack.
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+    private final ReactiveAppUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final PublicRoutes publicRoutes;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", SecurityConfig.corsConfiguration());
+
+        return http
+                .cors(cors -> cors.configurationSource(corsSource))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // /logout is handled by ReactiveAuthController
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(PublicRoutes.PATTERNS.toArray(String[]::new)).permitAll()
+                        .matchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).hasRole(UserAuthorities.ADMIN)
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(new JwtWebFilter(userDetailsService, jwtUtil, tokenRevocationService, tokenVersionRegistry, publicRoutes, statelessEnabled),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(authenticationEntryPoint()))
+                .build();
+    }
+
+    // Password check for /login. The matcher is published on bounded-elastic, where the BoundedPasswordEncoder
+    // waits for the hashing pool, so BCrypt never runs on (or blocks) an event-loop thread.
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager() {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setUserDetailsPasswordService(userDetailsService);
+        authenticationManager.setScheduler(Schedulers.boundedElastic());
+        return authenticationManager;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(@Value("${rate-limit.max-keys:100000}") long maxKeys,
+                                   @Value("${rate-limit.login.capacity:10}") int loginCapacity,
+                                   @Value("${rate-limit.login.refill-period:1m}") Duration loginRefillPeriod,
+                                   @Value("${rate-limit.otp.capacity:3}") int otpCapacity,
+                                   @Value("${rate-limit.otp.refill-period:15m}") Duration otpRefillPeriod,
+                                   @Value("${rate-limit.otp-check.capacity:10}") int otpCheckCapacity,
+                                   @Value("${rate-limit.otp-check.refill-period:15m}") Duration otpCheckRefillPeriod) {
+        return new RateLimiter(maxKeys, loginCapacity, loginRefillPeriod, otpCapacity, otpRefillPeriod,
+                otpCheckCapacity, otpCheckRefillPeriod);
+    }
+
+    // Tomcat is on the classpath for the servlet stack and would otherwise be picked for reactive too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    private ServerAuthenticationEntryPoint authenticationEntryPoint() {
+        byte[] body = "{\"authenticated\": false, \"message\": \"User is not authenticated\"}".getBytes(StandardCharsets.UTF_8);
+        return (exchange, ex) -> {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.fromSupplier(() -> exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+}
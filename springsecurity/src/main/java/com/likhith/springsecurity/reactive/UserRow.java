@@ -0,0 +1,11 @@
+package com.likhith.springsecurity.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.util.UUID;
+
+// R2DBC view of tbl_users for the reactive read paths; the schema is still owned by the JPA UserEntity
+@Table("tbl_users")
+public record UserRow(@Id Long id, UUID userId, String name, String email, String password, Boolean isAccountVerified, Long tokenVersion) {
+}
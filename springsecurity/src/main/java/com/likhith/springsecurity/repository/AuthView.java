@@ -0,0 +1,12 @@
+package com.likhith.springsecurity.repository;
+
+import java.util.UUID;
+
+// The columns authentication needs, read without loading a managed UserEntity.
+// Also the value of the userDetails cache (immutable, unlike the UserDetails built from it).
+public record AuthView(String email, String password, UUID userId, long tokenVersion) {
+
+    public static AuthView of(String email, String password, String userId, long tokenVersion) {
+        return new AuthView(email, password, userId == null ? null : UUID.fromString(userId), tokenVersion);
+    }
+}
@@ -0,0 +1,55 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.EmailOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+    // Rows locked by another node are skipped, so concurrent pollers never claim the same message
+    @Query(value = """
+            SELECT * FROM tbl_email_outbox
+            WHERE status = 'PENDING' OR (status = 'SENDING' AND claimed_at < :staleBefore)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutboxEntity> lockNextBatch(@Param("staleBefore") Timestamp staleBefore, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxEntity o set o.status = :status, o.sentAt = :sentAt, "
+            + "o.body = case when o.sensitive = true then null else o.body end where o.id = :id")
+    int markSent(@Param("id") Long id, @Param("status") EmailOutboxEntity.Status status, @Param("sentAt") Timestamp sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxEntity o set o.status = :status, o.lastError = :error where o.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") EmailOutboxEntity.Status status, @Param("error") String error);
+
+    // keeps rows this node still holds in its dispatcher from being reclaimed as stale
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxEntity o set o.claimedAt = :now where o.id in :ids "
+            + "and o.status = com.likhith.springsecurity.entity.EmailOutboxEntity.Status.SENDING")
+    int renewClaims(@Param("ids") Collection<Long> ids, @Param("now") Timestamp now);
+
+    // FAILED rows are never purged, so a sensitive body is dropped right away
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxEntity o set o.status = :status, o.lastError = :error, "
+            + "o.body = case when o.sensitive = true then null else o.body end where o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") EmailOutboxEntity.Status status, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmailOutboxEntity o where o.status = :status and o.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") EmailOutboxEntity.Status status, @Param("before") Timestamp before);
+}
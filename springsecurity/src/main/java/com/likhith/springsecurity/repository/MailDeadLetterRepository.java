@@ -0,0 +1,7 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.MailDeadLetterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MailDeadLetterRepository extends JpaRepository<MailDeadLetterEntity, Long> {
+}
@@ -0,0 +1,45 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.OtpEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface OtpRepository extends JpaRepository<OtpEntity, Long> {
+    Optional<OtpEntity> findByEmailAndPurpose(String email, String purpose);
+
+    // one statement, so two concurrent sends for the same (email, purpose) cannot both try to insert
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_otps (email, purpose, otp_hash, expires_at, failed_attempts)
+            VALUES (:email, :purpose, :otpHash, :expiresAt, 0)
+            ON CONFLICT (email, purpose) DO UPDATE
+            SET otp_hash = EXCLUDED.otp_hash, expires_at = EXCLUDED.expires_at, failed_attempts = 0
+            """, nativeQuery = true)
+    void upsert(@Param("email") String email, @Param("purpose") String purpose,
+                @Param("otpHash") String otpHash, @Param("expiresAt") long expiresAt);
+
+    // returns 0 for the loser when two requests consume the same code concurrently
+    @Modifying
+    @Query("delete from OtpEntity o where o.id = :id")
+    int deleteOne(@Param("id") Long id);
+
+    // the update row-locks the code, so concurrent wrong guesses are counted one after another
+    @Modifying
+    @Query("update OtpEntity o set o.failedAttempts = o.failedAttempts + 1 where o.id = :id")
+    int recordFailedAttempt(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from OtpEntity o where o.id = :id and o.failedAttempts >= :maxAttempts")
+    int deleteIfAttemptsExceeded(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+
+    // single statement over idx_otps_expires_at instead of loading and deleting rows one by one
+    @Transactional
+    @Modifying
+    @Query("delete from OtpEntity o where o.expiresAt < :now")
+    int deleteExpired(@Param("now") long now);
+}
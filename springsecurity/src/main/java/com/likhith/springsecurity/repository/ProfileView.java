@@ -0,0 +1,7 @@
+package com.likhith.springsecurity.repository;
+
+import java.util.UUID;
+
+// The columns GET /profile returns, read without loading a managed UserEntity
+public record ProfileView(UUID userId, String name, String email, Boolean isAccountVerified) {
+}
@@ -0,0 +1,33 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.RefreshTokenEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    // row lock so two concurrent rotations of the same token cannot both succeed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") Timestamp now);
+
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revokedAt = :now where r.email = :email and r.revokedAt is null")
+    int revokeAllForEmail(@Param("email") String email, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.expiresAt < :before")
+    int deleteExpired(@Param("before") Timestamp before);
+}
@@ -0,0 +1,25 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    @Query("select r.jti from RevokedTokenEntity r where r.expiresAt > :now")
+    Stream<String> streamActiveJtis(@Param("now") Timestamp now);
+
+    @Query("select count(r) from RevokedTokenEntity r where r.expiresAt > :now")
+    long countActive(@Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedTokenEntity r where r.expiresAt < :before")
+    int deleteExpired(@Param("before") Timestamp before);
+}
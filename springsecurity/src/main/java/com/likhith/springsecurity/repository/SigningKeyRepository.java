@@ -0,0 +1,11 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.SigningKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKeyEntity, String> {
+
+    List<SigningKeyEntity> findAllByOrderByActivatesAtAsc();
+}
@@ -1,12 +1,67 @@
 package com.likhith.springsecurity.repository;
 
 import com.likhith.springsecurity.entity.UserEntity;
+import com.likhith.springsecurity.io.UserExportRow;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
     Optional<UserEntity> findByEmail(String email);
 
     Boolean existsByEmail(String email);
+
+    // Read paths select only the columns they use into records: no managed entity, no dirty-checking snapshot.
+    // Read-only here rather than on the callers, so a userDetails cache hit never opens a transaction.
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.likhith.springsecurity.repository.AuthView(u.email, u.password, u.userId, coalesce(u.tokenVersion, 0))
+            from UserEntity u where u.email = :email
+            """)
+    Optional<AuthView> findAuthViewByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.likhith.springsecurity.repository.ProfileView(u.userId, u.name, u.email, u.isAccountVerified)
+            from UserEntity u where u.email = :email
+            """)
+    Optional<ProfileView> findProfileViewByEmail(@Param("email") String email);
+
+    // one atomic insert guarded by the email unique constraint: 0 rows means the email is taken,
+    // including when a concurrent registration for the same address committed first
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_users (id, user_id, name, email, password, is_account_verified, token_version, created_at, updated_at)
+            VALUES (nextval('tbl_users_seq'), :userId, :name, :email, :password, false, 0, now(), now())
+            ON CONFLICT (email) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("name") String name,
+                       @Param("email") String email, @Param("password") String password);
+
+    @Query("select u.email from UserEntity u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // must be consumed inside a read-only transaction; the fetch size makes pgjdbc use a cursor instead of
+    // materializing the whole table
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.likhith.springsecurity.io.UserExportRow(u.userId, u.name, u.email, u.isAccountVerified, u.password)
+            from UserEntity u order by u.id
+            """)
+    Stream<UserExportRow> streamAllForExport();
+
+    @Query("select coalesce(u.tokenVersion, 0) from UserEntity u where u.email = :email")
+    Optional<Long> findTokenVersionByEmail(@Param("email") String email);
 }
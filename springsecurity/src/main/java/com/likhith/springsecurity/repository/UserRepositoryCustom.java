@@ -0,0 +1,11 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.UserEntity;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    // One JDBC batch of conflict-guarded inserts; element i is 1 when users[i] was inserted, 0 when its email was taken
+    int[] insertAllIfAbsent(List<UserEntity> users);
+}
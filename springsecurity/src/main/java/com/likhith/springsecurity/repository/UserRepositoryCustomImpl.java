@@ -0,0 +1,36 @@
+package com.likhith.springsecurity.repository;
+
+import com.likhith.springsecurity.entity.UserEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+// Plain JDBC on purpose: a duplicate inside a saveAll batch would fail the whole batch instead of reporting the
+// one row. pgjdbc sends the batch in a single round trip, and each row draws its id from tbl_users_seq in the INSERT.
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO tbl_users (id, user_id, name, email, password, is_account_verified, token_version, created_at, updated_at)
+            VALUES (nextval('tbl_users_seq'), ?, ?, ?, ?, ?, 0, now(), now())
+            ON CONFLICT (email) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAllIfAbsent(List<UserEntity> users) {
+        if (users.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, users, users.size(), (ps, user) -> {
+            ps.setObject(1, user.getUserId());
+            ps.setString(2, user.getName());
+            ps.setString(3, user.getEmail());
+            ps.setString(4, user.getPassword());
+            ps.setBoolean(5, Boolean.TRUE.equals(user.getIsAccountVerified()));
+        });
+        return counts[0];
+    }
+}
@@ -0,0 +1,21 @@
+package com.likhith.springsecurity.service;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// User principal that also carries the public userId and token version, so they can be embedded in the JWT
+@Getter
+public class AppUserDetails extends User {
+
+    private final String userId;
+    private final long tokenVersion;
+
+    public AppUserDetails(String email, String password, Collection<? extends GrantedAuthority> authorities, String userId, long tokenVersion) {
+        super(email, password, authorities);
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+}
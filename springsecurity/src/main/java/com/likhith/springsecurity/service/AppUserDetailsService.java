@@ -1,26 +1,73 @@
 package com.likhith.springsecurity.service;
 
-import com.likhith.springsecurity.entity.UserEntity;
+import com.likhith.springsecurity.config.CacheConfig;
+import com.likhith.springsecurity.repository.AuthView;
 import com.likhith.springsecurity.repository.UserRepository;
+import com.likhith.springsecurity.util.OutcomeTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-
 @Service
 @RequiredArgsConstructor
-public class AppUserDetailsService implements UserDetailsService {
+public class AppUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PasswordUpgradeBatcher passwordUpgradeBatcher;
+    private final UserAuthorities userAuthorities;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    private OutcomeTimer lookupTimer;
+    private Cache userDetailsCache;
 
+    @PostConstruct
+    public void init() {
+        // only cache misses are timed, so this is the database lookup alone
+        lookupTimer = new OutcomeTimer(meterRegistry, "security.user.lookup", "Time to load a user from the database");
+        userDetailsCache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+    }
+
+    // The cache holds the immutable AuthView and every call builds a fresh UserDetails from it, so the
+    // ProviderManager can erase credentials after a login without touching what the next login reads.
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity existingUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Email not found " + email));
-        return new User(existingUser.getEmail(), existingUser.getPassword(), new ArrayList<>());
+        AuthView cached = userDetailsCache.get(email, AuthView.class);
+        if (cached != null) {
+            return toUserDetails(cached);
+        }
+        long start = System.nanoTime();
+        AuthView existingUser = userRepository.findAuthViewByEmail(email).orElse(null);
+        if (existingUser == null) {
+            lookupTimer.record(start, "not-found");
+            throw new UsernameNotFoundException("Email not found " + email);
+        }
+        lookupTimer.record(start, "found");
+        userDetailsCache.put(email, existingUser);
+        return toUserDetails(existingUser);
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login with an outdated hash.
+    // The write is batched; the cache gets the new hash right away so the next login does not rehash again.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        passwordUpgradeBatcher.enqueue(user.getUsername(), user.getPassword(), newPassword);
+        AuthView upgraded = user instanceof AppUserDetails appUserDetails
+                ? AuthView.of(user.getUsername(), newPassword, appUserDetails.getUserId(), appUserDetails.getTokenVersion())
+                : AuthView.of(user.getUsername(), newPassword, null, 0);
+        userDetailsCache.put(user.getUsername(), upgraded);
+        return toUserDetails(upgraded);
+    }
+
+    private UserDetails toUserDetails(AuthView user) {
+        return new AppUserDetails(user.email(), user.password(), userAuthorities.forEmail(user.email()),
+                user.userId() == null ? null : user.userId().toString(), user.tokenVersion());
     }
 }
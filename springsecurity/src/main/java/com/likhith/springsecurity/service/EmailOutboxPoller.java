@@ -0,0 +1,127 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.EmailOutboxEntity;
+import com.likhith.springsecurity.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Drains tbl_email_outbox into the MailDispatcher. Rows are claimed with FOR UPDATE SKIP LOCKED and
+// flipped to SENDING in the same transaction, so several nodes can poll the table without double sends.
+// A node that dies mid-delivery leaves its rows in SENDING; they are reclaimed after claim-timeout. A live node
+// renews the claim of every row still queued or retrying in its MailDispatcher, however long the backlog is,
+// so only rows of a dead node ever go stale.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxPoller {
+
+    private static final int RENEW_CHUNK = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MailDispatcher mailDispatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    @Value("${mail.outbox.retention:7d}")
+    private Duration retention;
+
+    // ids handed to the dispatcher and not yet reported delivered or failed
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:2s}")
+    public void poll() {
+        List<EmailOutboxEntity> claimed = transactionTemplate.execute(status -> claimBatch());
+        if (claimed == null) {
+            return;
+        }
+
+        for (EmailOutboxEntity outbox : claimed) {
+            inFlight.add(outbox.getId());
+            if (!mailDispatcher.enqueue(toMessage(outbox), outbox.isSensitive(), new OutboxDeliveryListener(outbox.getId()))) {
+                // dispatcher is saturated, hand the row back for the next poll
+                inFlight.remove(outbox.getId());
+                emailOutboxRepository.updateStatus(outbox.getId(), EmailOutboxEntity.Status.PENDING, null);
+            }
+        }
+    }
+
+    // must run well within claim-timeout
+    @Scheduled(initialDelayString = "${mail.outbox.claim-renew-interval:1m}", fixedDelayString = "${mail.outbox.claim-renew-interval:1m}")
+    public void renewClaims() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(inFlight);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int from = 0; from < ids.size(); from += RENEW_CHUNK) {
+            emailOutboxRepository.renewClaims(ids.subList(from, Math.min(from + RENEW_CHUNK, ids.size())), now);
+        }
+    }
+
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 0 3 * * *}")
+    public void purgeSent() {
+        Timestamp before = new Timestamp(System.currentTimeMillis() - retention.toMillis());
+        int purged = emailOutboxRepository.deleteByStatusAndSentAtBefore(EmailOutboxEntity.Status.SENT, before);
+        log.info("Purged {} sent outbox messages", purged);
+    }
+
+    private List<EmailOutboxEntity> claimBatch() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp staleBefore = new Timestamp(now.getTime() - claimTimeout.toMillis());
+
+        List<EmailOutboxEntity> batch = emailOutboxRepository.lockNextBatch(staleBefore, batchSize);
+        for (EmailOutboxEntity outbox : batch) {
+            outbox.setStatus(EmailOutboxEntity.Status.SENDING);
+            outbox.setClaimedAt(now);
+            outbox.setAttempts(outbox.getAttempts() == null ? 1 : outbox.getAttempts() + 1);
+        }
+        return batch;
+    }
+
+    private SimpleMailMessage toMessage(EmailOutboxEntity outbox) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(outbox.getSender());
+        message.setTo(outbox.getRecipient());
+        message.setSubject(outbox.getSubject());
+        message.setText(outbox.getBody());
+        return message;
+    }
+
+    private class OutboxDeliveryListener implements MailDispatcher.DeliveryListener {
+
+        private final Long outboxId;
+
+        OutboxDeliveryListener(Long outboxId) {
+            this.outboxId = outboxId;
+        }
+
+        @Override
+        public void delivered() {
+            inFlight.remove(outboxId);
+            emailOutboxRepository.markSent(outboxId, EmailOutboxEntity.Status.SENT, new Timestamp(System.currentTimeMillis()));
+        }
+
+        @Override
+        public void failed(String reason) {
+            inFlight.remove(outboxId);
+            String error = reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason;
+            emailOutboxRepository.markFailed(outboxId, EmailOutboxEntity.Status.FAILED, error);
+        }
+    }
+}
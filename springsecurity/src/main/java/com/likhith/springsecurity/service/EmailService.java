@@ -1,49 +1,53 @@
 package com.likhith.springsecurity.service;
 
+import com.likhith.springsecurity.entity.EmailOutboxEntity;
+import com.likhith.springsecurity.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+// Emails are written to the outbox table, joining the caller's transaction; EmailOutboxPoller delivers them
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     @Value("${spring.mail.properties.mail.smtp.from}")
     private String fromEmail;
 
     public void sendWelcomeEmail(String toEmail, String name){
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-        message.setSubject("Welcome to our Spring Security Vault");
-        message.setText("Hello " + name + ",\n\nWelcome to our app! We're excited to have you on board.\n\n- The Team");
-        javaMailSender.send(message);
+        enqueue(toEmail,
+                "Welcome to our Spring Security Vault",
+                "Hello " + name + ",\n\nWelcome to our app! We're excited to have you on board.\n\n- The Team",
+                false);
     }
 
     public void sendResetOtpEmail(String toEmail, String otp){
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-
-        message.setSubject("Your Password Reset OTP");
-        message.setText("Hello,\n\nHere is your OTP to reset your password: " + otp + "\n\nThis OTP is valid for the next 15 minutes.\n\n- The Team");
-
-        javaMailSender.send(message);
+        enqueue(toEmail,
+                "Your Password Reset OTP",
+                "Hello,\n\nHere is your OTP to reset your password: " + otp + "\n\nThis OTP is valid for the next 15 minutes.\n\n- The Team",
+                true);
     }
 
     public void sendOtpEmail(String toEmail, String otp){
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-
-        message.setSubject("Your OTP Verification Code");
-        message.setText("Hello,\n\nYour OTP code is: " + otp + "\n\nThis code will expire in 24 hours.\n\n- The Team");
-
-        javaMailSender.send(message);
+        enqueue(toEmail,
+                "Your OTP Verification Code",
+                "Hello,\n\nYour OTP code is: " + otp + "\n\nThis code will expire in 24 hours.\n\n- The Team",
+                true);
+    }
 
+    // OTP mails are sensitive: the plaintext code only lives in the outbox until the row is SENT or FAILED,
+    // so the hashed copy in the OtpStore stays the only one at rest
+    private void enqueue(String toEmail, String subject, String text, boolean sensitive) {
+        emailOutboxRepository.save(EmailOutboxEntity.builder()
+                .sender(fromEmail)
+                .recipient(toEmail)
+                .subject(subject)
+                .body(text)
+                .sensitive(sensitive)
+                .status(EmailOutboxEntity.Status.PENDING)
+                .attempts(0)
+                .build());
     }
 }
@@ -0,0 +1,128 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.util.OtpHasher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single-node OTP store. Expired codes are reclaimed by a hashed timing wheel: every entry sits in the
+// slot of its deadline tick, and each tick only looks at one slot instead of scanning the whole map.
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryOtpStore implements OtpStore {
+
+    private final OtpHasher otpHasher;
+
+    @Value("${otp.store.memory.tick:1s}")
+    private Duration tick;
+
+    @Value("${otp.store.memory.wheel-size:3600}")
+    private int wheelSize;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private Queue<Entry>[] wheel;
+    private long tickMillis;
+    private long startedAt;
+    private volatile long currentTick;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void start() {
+        wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        tickMillis = tick.toMillis();
+        startedAt = System.currentTimeMillis();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "otp-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void save(String email, OtpPurpose purpose, String otp, Duration ttl) {
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        long deadlineTick = Math.max(Math.ceilDiv(expiresAt - startedAt, tickMillis), currentTick + 1);
+
+        Entry entry = new Entry(key(email, purpose), otpHasher.hash(email, purpose.name(), otp), expiresAt, deadlineTick,
+                new AtomicInteger());
+        entries.put(entry.key(), entry);
+        wheel[(int) (deadlineTick % wheelSize)].add(entry);
+    }
+
+    @Override
+    public Result consume(String email, OtpPurpose purpose, String otp) {
+        String key = key(email, purpose);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Result.INVALID;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return Result.EXPIRED;
+        }
+        if (!otpHasher.matches(entry.otpHash(), email, purpose.name(), otp)) {
+            if (entry.failedAttempts().incrementAndGet() >= maxAttempts && entries.remove(key, entry)) {
+                return Result.ATTEMPTS_EXCEEDED;
+            }
+            return Result.INVALID;
+        }
+        // remove(key, value) makes the code single-use even when two requests race with the same otp
+        return entries.remove(key, entry) ? Result.VALID : Result.INVALID;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void advance() {
+        long now = ++currentTick;
+        Queue<Entry> slot = wheel[(int) (now % wheelSize)];
+
+        // entries whose deadline is one or more wheel rotations away go back into the same slot
+        for (int pending = slot.size(); pending > 0; pending--) {
+            Entry entry = slot.poll();
+            if (entry == null) {
+                break;
+            }
+            if (entry.deadlineTick() <= now) {
+                entries.remove(entry.key(), entry);
+            } else {
+                slot.add(entry);
+            }
+        }
+    }
+
+    private static String key(String email, OtpPurpose purpose) {
+        return purpose.name() + ':' + email;
+    }
+
+    private record Entry(String key, String otpHash, long expiresAt, long deadlineTick, AtomicInteger failedAttempts) {
+    }
+}
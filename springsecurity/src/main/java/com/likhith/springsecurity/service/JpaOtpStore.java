@@ -0,0 +1,60 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.OtpEntity;
+import com.likhith.springsecurity.repository.OtpRepository;
+import com.likhith.springsecurity.util.OtpHasher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Default OTP store, shared by every node through tbl_otps
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+    private final OtpHasher otpHasher;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Override
+    @Transactional
+    public void save(String email, OtpPurpose purpose, String otp, Duration ttl) {
+        otpRepository.upsert(email, purpose.name(), otpHasher.hash(email, purpose.name(), otp),
+                System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    @Override
+    @Transactional
+    public Result consume(String email, OtpPurpose purpose, String otp) {
+        Optional<OtpEntity> stored = otpRepository.findByEmailAndPurpose(email, purpose.name());
+        if (stored.isEmpty()) {
+            return Result.INVALID;
+        }
+
+        OtpEntity entity = stored.get();
+        if (entity.getExpiresAt() <= System.currentTimeMillis()) {
+            otpRepository.delete(entity);
+            return Result.EXPIRED;
+        }
+        if (!otpHasher.matches(entity.getOtpHash(), email, purpose.name(), otp)) {
+            otpRepository.recordFailedAttempt(entity.getId());
+            return otpRepository.deleteIfAttemptsExceeded(entity.getId(), maxAttempts) == 1 ? Result.ATTEMPTS_EXCEEDED : Result.INVALID;
+        }
+
+        return otpRepository.deleteOne(entity.getId()) == 1 ? Result.VALID : Result.INVALID;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.store.purge-interval:10m}")
+    public void purgeExpired() {
+        otpRepository.deleteExpired(System.currentTimeMillis());
+    }
+}
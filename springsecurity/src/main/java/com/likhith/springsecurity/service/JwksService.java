@@ -0,0 +1,53 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.util.SigningKey;
+import com.likhith.springsecurity.util.SigningKeyProvider;
+import io.jsonwebtoken.security.Jwks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// JSON Web Key Set of the published signing keys, served by both the servlet and the reactive JWKS endpoint
+@Service
+@RequiredArgsConstructor
+public class JwksService {
+
+    private final SigningKeyProvider signingKeyProvider;
+
+    @Value("${jwt.keys.jwks-max-age:10m}")
+    private Duration jwksMaxAge;
+
+    // rendered once per key ring version
+    private volatile Document rendered;
+
+    public Duration getMaxAge() {
+        return jwksMaxAge;
+    }
+
+    public Document current() {
+        List<SigningKey> keys = signingKeyProvider.publishedKeys();
+        Document current = rendered;
+        if (current != null && current.keys() == keys) {
+            return current;
+        }
+        String json = keys.stream()
+                .map(key -> Jwks.json(Jwks.builder()
+                        .key(key.publicKey())
+                        .id(key.kid())
+                        .algorithm(key.algorithm().getJwsAlgorithm().getId())
+                        .publicKeyUse("sig")
+                        .build()))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        String etag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+        current = new Document(keys, json, etag);
+        rendered = current;
+        return current;
+    }
+
+    public record Document(List<SigningKey> keys, String json, String etag) {
+    }
+}
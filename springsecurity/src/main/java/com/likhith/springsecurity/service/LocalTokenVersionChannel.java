@@ -0,0 +1,26 @@
+package com.likhith.springsecurity.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-process channel for single-node deployments and tests
+@Component
+@ConditionalOnProperty(name = "jwt.token-version.channel", havingValue = "local", matchIfMissing = true)
+public class LocalTokenVersionChannel implements TokenVersionChannel {
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String email) {
+        listeners.forEach(listener -> listener.accept(email));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+}
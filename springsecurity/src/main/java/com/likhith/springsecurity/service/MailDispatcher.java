@@ -0,0 +1,215 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.MailDeadLetterEntity;
+import com.likhith.springsecurity.repository.MailDeadLetterRepository;
+import com.likhith.springsecurity.util.OutcomeTimer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Sends mail off the request thread: bounded queue -> worker threads -> batched SMTP sends,
+// with exponential backoff retries and a dead-letter table for messages that never went out
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailDispatcher {
+
+    private final JavaMailSender javaMailSender;
+    private final MailDeadLetterRepository mailDeadLetterRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mail.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${mail.dispatch.workers:2}")
+    private int workers;
+
+    @Value("${mail.dispatch.batch-size:20}")
+    private int batchSize;
+
+    @Value("${mail.dispatch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${mail.dispatch.initial-backoff:2s}")
+    private Duration initialBackoff;
+
+    // platform by default: the SMTP transport synchronizes around its socket I/O, which pins a virtual
+    // thread's carrier on JDK 21, and a couple of long-lived workers gain nothing from being virtual
+    @Value("${mail.dispatch.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    private BlockingQueue<PendingMail> queue;
+    private ScheduledExecutorService retryScheduler;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+    private OutcomeTimer sendTimer;
+    private Counter deadLetterCounter;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+
+        sendTimer = new OutcomeTimer(meterRegistry, "mail.send", "Time of one SMTP batch send");
+        deadLetterCounter = Counter.builder("mail.dead.letters")
+                .description("Messages given up on and written to the dead-letter table")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("mail-dispatcher-", 0)
+                : Thread.ofPlatform().daemon(true).name("mail-dispatcher-", 0);
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(builder.start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerThreads.forEach(Thread::interrupt);
+
+        // whatever is still queued belongs to the outbox, which picks it up again once its claim goes stale
+        queue.clear();
+    }
+
+    // Returns as soon as the message is queued; false when the queue is full, the caller then still owns the message.
+    // The listener is told how delivery ended. The text of a sensitive message is never written to the dead letters.
+    public boolean enqueue(SimpleMailMessage message, boolean sensitive, DeliveryListener listener) {
+        return queue.offer(new PendingMail(message, sensitive, 0, listener));
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Mail worker failed to process a batch", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<PendingMail> batch) {
+        SimpleMailMessage[] messages = batch.stream()
+                .map(PendingMail::message)
+                .toArray(SimpleMailMessage[]::new);
+        long start = System.nanoTime();
+        try {
+            // JavaMailSenderImpl sends the whole array over a single SMTP connection
+            javaMailSender.send(messages);
+            sendTimer.record(start, "success");
+            batch.forEach(this::notifyDelivered);
+        } catch (MailSendException ex) {
+            Map<Object, Exception> failedMessages = ex.getFailedMessages();
+            sendTimer.record(start, failedMessages.isEmpty() ? "failure" : "partial-failure");
+            for (PendingMail mail : batch) {
+                // an empty map means the connection itself failed, so nothing in the batch was sent
+                Exception cause = failedMessages.isEmpty() ? ex : failedMessages.get(mail.message());
+                if (cause != null) {
+                    retryOrDeadLetter(mail, cause);
+                } else {
+                    notifyDelivered(mail);
+                }
+            }
+        } catch (MailException ex) {
+            sendTimer.record(start, "failure");
+            batch.forEach(mail -> retryOrDeadLetter(mail, ex));
+        }
+    }
+
+    private void notifyDelivered(PendingMail mail) {
+        try {
+            mail.listener().delivered();
+        } catch (RuntimeException ex) {
+            log.error("Delivery listener failed for mail to {}", recipient(mail.message()), ex);
+        }
+    }
+
+    private void retryOrDeadLetter(PendingMail mail, Exception cause) {
+        PendingMail next = new PendingMail(mail.message(), mail.sensitive(), mail.attempts() + 1, mail.listener());
+        if (next.attempts() >= maxAttempts || !running) {
+            log.error("Giving up on mail to {} after {} attempts: {}", recipient(mail.message()), next.attempts(), cause.getMessage());
+            deadLetter(next, cause.getMessage());
+            return;
+        }
+
+        long delay = initialBackoff.toMillis() << (next.attempts() - 1);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(next)) {
+                deadLetter(next, "Mail queue is full");
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(PendingMail mail, String reason) {
+        deadLetterCounter.increment();
+        try {
+            mail.listener().failed(reason);
+        } catch (RuntimeException ex) {
+            log.error("Delivery listener failed for mail to {}", recipient(mail.message()), ex);
+        }
+        try {
+            mailDeadLetterRepository.save(MailDeadLetterEntity.builder()
+                    .recipient(recipient(mail.message()))
+                    .subject(mail.message().getSubject())
+                    .body(mail.sensitive() ? null : mail.message().getText())
+                    .attempts(mail.attempts())
+                    .lastError(reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason)
+                    .build());
+        } catch (RuntimeException ex) {
+            log.error("Failed to record dead letter for mail to {}", recipient(mail.message()), ex);
+        }
+    }
+
+    private static String recipient(SimpleMailMessage message) {
+        return message.getTo() == null ? null : String.join(",", message.getTo());
+    }
+
+    public interface DeliveryListener {
+        void delivered();
+
+        void failed(String reason);
+    }
+
+    private record PendingMail(SimpleMailMessage message, boolean sensitive, int attempts, DeliveryListener listener) {
+    }
+}
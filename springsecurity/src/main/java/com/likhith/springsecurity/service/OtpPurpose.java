@@ -0,0 +1,6 @@
+package com.likhith.springsecurity.service;
+
+public enum OtpPurpose {
+    VERIFY_EMAIL,
+    RESET_PASSWORD
+}
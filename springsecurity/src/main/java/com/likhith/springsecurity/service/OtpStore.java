@@ -0,0 +1,20 @@
+package com.likhith.springsecurity.service;
+
+import java.time.Duration;
+
+// Keeps one OTP per (email, purpose). Implementations store only a hash of the code and
+// forget it as soon as it has been used once, has expired or has been guessed wrong otp.max-attempts times.
+public interface OtpStore {
+
+    void save(String email, OtpPurpose purpose, String otp, Duration ttl);
+
+    Result consume(String email, OtpPurpose purpose, String otp);
+
+    enum Result {
+        VALID,
+        INVALID,
+        EXPIRED,
+        // this guess was the last allowed one; the code is gone
+        ATTEMPTS_EXCEEDED
+    }
+}
@@ -0,0 +1,80 @@
+package com.likhith.springsecurity.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Collects password re-hashes produced on login and writes them with JDBC batch updates,
+// so upgrading hashes costs one round-trip per batch instead of one write per login
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordUpgradeBatcher {
+
+    // the old hash guards the update: a password reset in the meantime wins over a pending upgrade
+    private static final String UPDATE_SQL = "update tbl_users set password = ? where email = ? and password = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${security.password.upgrade.batch-size:200}")
+    private int batchSize;
+
+    private final Map<String, Upgrade> pending = new ConcurrentHashMap<>();
+
+    public void enqueue(String email, String oldHash, String newHash) {
+        // a second login before the flush only replaces the new hash, the original old hash stays the guard
+        pending.merge(email, new Upgrade(email, oldHash, newHash),
+                (queued, latest) -> new Upgrade(email, queued.oldHash(), latest.newHash()));
+    }
+
+    @Scheduled(fixedDelayString = "${security.password.upgrade.flush-interval:5s}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Upgrade> batch = new ArrayList<>(batchSize);
+        for (Upgrade upgrade : pending.values()) {
+            if (pending.remove(upgrade.email(), upgrade)) {
+                batch.add(upgrade);
+            }
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Upgrade> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, upgrade) -> {
+                ps.setString(1, upgrade.newHash());
+                ps.setString(2, upgrade.email());
+                ps.setString(3, upgrade.oldHash());
+            });
+        } catch (RuntimeException ex) {
+            // the old hash is still valid, the upgrade is simply retried on the user's next login
+            log.warn("Failed to write {} password hash upgrades", batch.size(), ex);
+        }
+    }
+
+    private record Upgrade(String email, String oldHash, String newHash) {
+    }
+}
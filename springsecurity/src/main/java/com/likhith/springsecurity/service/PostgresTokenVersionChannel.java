@@ -0,0 +1,105 @@
+package com.likhith.springsecurity.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Multi-node channel over Postgres LISTEN/NOTIFY, so no extra broker is needed.
+// The listener keeps one pooled connection for itself.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.token-version.channel", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresTokenVersionChannel implements TokenVersionChannel {
+
+    private static final String CHANNEL = "token_version";
+    private static final int POLL_TIMEOUT_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofVirtual().name("token-version-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    @Override
+    public void publish(String email) {
+        jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, email);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // notifications sent while we were disconnected are lost, so everything cached is dropped
+                if (reconnecting) {
+                    dispatch(null);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Token version listener lost its connection, reconnecting: {}", ex.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(POLL_TIMEOUT_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String email) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(email);
+            } catch (RuntimeException ex) {
+                log.error("Token version listener failed for {}", email, ex);
+            }
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.likhith.springsecurity.service;
 
+import com.likhith.springsecurity.config.CacheConfig;
 import com.likhith.springsecurity.entity.UserEntity;
 import com.likhith.springsecurity.io.ProfileRequest;
 import com.likhith.springsecurity.io.ProfileResponse;
+import com.likhith.springsecurity.repository.ProfileView;
 import com.likhith.springsecurity.repository.UserRepository;
+import com.likhith.springsecurity.util.EmailNormalizer;
+import com.likhith.springsecurity.util.UuidV7;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Random;
-import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Service
@@ -23,104 +30,136 @@ public class ProfileServiceImpl implements ProfileService{
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final OtpStore otpStore;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    // the password hash takes far longer than the writes, so only the writes hold a transaction (and a connection)
+    private final TransactionTemplate transactionTemplate;
 
-    private UserEntity convertToUserEntity(ProfileRequest request) {
+    private static final Duration RESET_OTP_TTL = Duration.ofMinutes(15);
+    private static final Duration VERIFY_OTP_TTL = Duration.ofHours(24);
+
+    // package-private so the JMH benchmarks can measure the mapping on its own
+    UserEntity convertToUserEntity(ProfileRequest request) {
         return UserEntity.builder()
-                .email(request.getEmail())
-                .userId(UUID.randomUUID().toString())
+                .email(EmailNormalizer.normalize(request.getEmail()))
+                .userId(UuidV7.generate())
                 .name(request.getName())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .isAccountVerified(false)
-                .resetOtpExpireAt(0L)
-                .verifyOtp(null)
-                .verifyOtpExpireAt(0L)
-                .resetOtp(null)
                 .build();
 
     }
 
-    private ProfileResponse convertToProfileResponse(UserEntity newProfile) {
+    ProfileResponse convertToProfileResponse(UserEntity newProfile) {
         return ProfileResponse.builder()
                 .name(newProfile.getName())
                 .email(newProfile.getEmail())
-                .userId(newProfile.getUserId())
+                .userId(newProfile.getUserId() == null ? null : newProfile.getUserId().toString())
                 .isAccountVerified(newProfile.getIsAccountVerified())
                 .build();
     }
 
+    ProfileResponse convertToProfileResponse(ProfileView profile) {
+        return ProfileResponse.builder()
+                .name(profile.name())
+                .email(profile.email())
+                .userId(profile.userId() == null ? null : profile.userId().toString())
+                .isAccountVerified(profile.isAccountVerified())
+                .build();
+    }
+
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS_CACHE, key = "#request.email")
     public ProfileResponse createProfile(ProfileRequest request) {
-        UserEntity newProfile = convertToUserEntity(request);
-//        newProfile = userRepository.save(newProfile);
-//        return convertToProfileResponse(newProfile);
-
-        if(!userRepository.existsByEmail(request.getEmail())){
-            newProfile = userRepository.save(newProfile);
-            return convertToProfileResponse(newProfile);
+        // cheap indexed read so a duplicate is turned away before paying for the password hash;
+        // the insert below is what actually decides when two registrations race
+        if (userRepository.existsByEmail(EmailNormalizer.normalize(request.getEmail()))) {
+            throw emailInUse();
         }
-        throw new ResponseStatusException(HttpStatus.CONFLICT,"Email already in use");
 
+        UserEntity newProfile = convertToUserEntity(request);
+        transactionTemplate.executeWithoutResult(status -> {
+            int inserted = userRepository.insertIfAbsent(
+                    newProfile.getUserId(), newProfile.getName(), newProfile.getEmail(), newProfile.getPassword());
+            if (inserted == 0) {
+                throw emailInUse();
+            }
+
+            //send Welcome Email (outbox row commits with the new user)
+            emailService.sendWelcomeEmail(newProfile.getEmail(), newProfile.getName());
+        });
+
+        return convertToProfileResponse(newProfile);
+    }
+
+    private ResponseStatusException emailInUse() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
     }
 
     @Override
     public ProfileResponse getProfile(String email) {
-        UserEntity existingUser = userRepository.findByEmail(email)
+        ProfileView existingUser = userRepository.findProfileViewByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found " + email));
 
         return convertToProfileResponse(existingUser);
     }
 
     @Override
+    @Transactional
     public void sendResetOtp(String email) {
         UserEntity existingEntity =  userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
         //Generating 6 digits otp
         String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
 
-        //calculate expiry time (current time + 15min in milliseconds)
-        long expiryTime = System.currentTimeMillis() + (15 * 60 * 100);
+        //store the hashed otp, valid for 15 minutes
+        otpStore.save(existingEntity.getEmail(), OtpPurpose.RESET_PASSWORD, otp, RESET_OTP_TTL);
 
-        //update profile Entity
-        existingEntity.setResetOtp(otp);
-        existingEntity.setResetOtpExpireAt(expiryTime);
-
-        //save into the database
-        userRepository.save(existingEntity);
-
-        try{
-            //send the reset otp email
-            emailService.sendResetOtpEmail(existingEntity.getEmail(), otp);
-        }catch (Exception ex){
-            throw new RuntimeException(ex.getMessage());
-        }
+        //queue the reset otp email, committed in the same transaction as the otp
+        emailService.sendResetOtpEmail(existingEntity.getEmail(), otp);
 
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS_CACHE, key = "#email")
     public void resetPassword(String email, String otp, String newPassword) {
-        UserEntity existingUser = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-
-        // Check if OTP is correct
-        if(existingUser.getResetOtp() == null || !existingUser.getResetOtp().equals(otp)){
-            throw new IllegalArgumentException("Invalid OTP");
+        if (!userRepository.existsByEmail(email)) {
+            throw new UsernameNotFoundException("User not found: " + email);
         }
 
-        // Check if OTP is expired
-        if (existingUser.getResetOtpExpireAt() < System.currentTimeMillis()) {
-            throw new IllegalArgumentException("OTP has expired");
-        }
-
-        // Update password
-        existingUser.setPassword(passwordEncoder.encode(newPassword));
-
-        // Clear OTP fields
-        existingUser.setResetOtp(null);
-        existingUser.setResetOtpExpireAt(0L);
-
-        userRepository.save(existingUser);
+        // hashed before the transaction starts, see transactionTemplate; also before the OTP is consumed,
+        // so a request rejected by the hashing pool leaves the code usable for a retry
+        String encodedPassword = passwordEncoder.encode(newPassword);
+
+        // the result is checked after commit: throwing inside would roll back the failed-attempt count
+        OtpStore.Result result = transactionTemplate.execute(status -> {
+            // a valid OTP is consumed so it cannot be replayed
+            OtpStore.Result consumed = otpStore.consume(email, OtpPurpose.RESET_PASSWORD, otp);
+            if (consumed != OtpStore.Result.VALID) {
+                return consumed;
+            }
+
+            UserEntity existingUser = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+
+            // Update password
+            existingUser.setPassword(encodedPassword);
+            // every access token issued so far stops working as soon as this commits
+            long tokenVersion = existingUser.getTokenVersion() == null ? 0 : existingUser.getTokenVersion();
+            existingUser.setTokenVersion(tokenVersion + 1);
+
+            userRepository.save(existingUser);
+
+            // sessions started with the old password cannot be renewed anymore
+            refreshTokenService.revokeAll(existingUser.getEmail());
+            tokenVersionRegistry.versionChanged(existingUser.getEmail());
+            return consumed;
+        });
+        checkOtp(result);
     }
 
     @Override
+    @Transactional
     public void sendOtp(String email) {
         UserEntity existingUser = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found " + email));
 
@@ -132,40 +171,32 @@ public class ProfileServiceImpl implements ProfileService{
         //Generate 6 Digit OTP
         String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
 
-        //calculate expiry time (current time + 24hr in milliseconds)
-        long expiryTime = System.currentTimeMillis() + (24 * 60 * 60 * 100);
-
-        // 2. Set OTP and expiry time
-        existingUser.setVerifyOtp(otp);
-        existingUser.setVerifyOtpExpireAt(expiryTime);
-
-        // 3. Save the updated user
-        userRepository.save(existingUser);
+        // 2. Store the hashed OTP, valid for 24 hours
+        otpStore.save(existingUser.getEmail(), OtpPurpose.VERIFY_EMAIL, otp, VERIFY_OTP_TTL);
 
-        try {
-            emailService.sendOtpEmail(existingUser.getEmail(), existingUser.getVerifyOtp());
-        }catch (Exception ex){
-            throw new RuntimeException(ex.getMessage());
-        }
+        // 3. Queue the otp email, committed in the same transaction as the otp
+        emailService.sendOtpEmail(existingUser.getEmail(), otp);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS_CACHE, key = "#email")
     public void verifyOtp(String email, String otp) {
         UserEntity existingUser = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User not found " + email));
 
-        if(existingUser.getVerifyOtp() == null || !existingUser.getVerifyOtp().equals(otp)){
-            throw new IllegalArgumentException("Invalid OTP");
-        }
-
-        // Check if OTP is expired
-        if (existingUser.getVerifyOtpExpireAt() < System.currentTimeMillis()) {
-            throw new IllegalArgumentException("OTP has expired");
-        }
+        checkOtp(otpStore.consume(email, OtpPurpose.VERIFY_EMAIL, otp));
 
         existingUser.setIsAccountVerified(true);
-        existingUser.setVerifyOtp(null);
-        existingUser.setVerifyOtpExpireAt(0L);
 
         userRepository.save(existingUser);
     }
+
+    private void checkOtp(OtpStore.Result result) {
+        switch (result) {
+            case INVALID -> throw new IllegalArgumentException("Invalid OTP");
+            case EXPIRED -> throw new IllegalArgumentException("OTP has expired");
+            case ATTEMPTS_EXCEEDED -> throw new IllegalArgumentException("Too many wrong attempts, please request a new OTP");
+            case VALID -> { }
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.RefreshTokenEntity;
+import com.likhith.springsecurity.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+// Opaque, rotating refresh tokens. Every refresh consumes the presented token and issues a new one in
+// the same family; presenting an already used token means it was stolen, so the whole family is revoked.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-token.expiration:7d}")
+    private Duration refreshTokenExpiration;
+
+    public Duration getRefreshTokenExpiration() {
+        return refreshTokenExpiration;
+    }
+
+    @Transactional
+    public String issue(String email) {
+        return issue(email, UUID.randomUUID().toString());
+    }
+
+    // noRollbackFor: the family revocation on reuse must commit even though the call fails
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Refresh token is missing");
+        }
+
+        RefreshTokenEntity current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is invalid"));
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        if (current.getUsedAt() != null || current.getRevokedAt() != null) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            log.warn("Refresh token reuse detected for {}, revoked token family {}", current.getEmail(), current.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        if (current.getExpiresAt().before(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        current.setUsedAt(now);
+        refreshTokenRepository.save(current);
+        return new Rotation(current.getEmail(), issue(current.getEmail(), current.getFamilyId()));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), new Timestamp(System.currentTimeMillis())));
+    }
+
+    @Transactional
+    public void revokeAll(String email) {
+        refreshTokenRepository.revokeAllForEmail(email, new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Scheduled(cron = "${jwt.refresh-token.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(new Timestamp(System.currentTimeMillis()));
+    }
+
+    private String issue(String email, String familyId) {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(rawToken))
+                .email(email)
+                .familyId(familyId)
+                .expiresAt(new Timestamp(System.currentTimeMillis() + refreshTokenExpiration.toMillis()))
+                .build());
+        return rawToken;
+    }
+
+    // the token is 256 random bits, so an unkeyed digest is enough to make a leaked table useless
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record Rotation(String email, String refreshToken) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.SigningKeyEntity;
+import com.likhith.springsecurity.repository.SigningKeyRepository;
+import com.likhith.springsecurity.util.JwtSigningAlgorithm;
+import com.likhith.springsecurity.util.PrivateKeyCipher;
+import com.likhith.springsecurity.util.SigningKey;
+import com.likhith.springsecurity.util.SigningKeyProvider;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Key ring shared by every node through tbl_signing_keys. A new key is generated publishLead before it
+// starts signing, so downstream JWKS caches already know it; the previous key keeps verifying until the
+// last token it signed has expired, and is deleted after that.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SigningKeyService implements SigningKeyProvider {
+
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+    private static final long UNKNOWN_KID_RELOAD_MILLIS = 10_000;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final PrivateKeyCipher privateKeyCipher;
+
+    @Value("${jwt.signing.algorithm:ES256}")
+    private JwtSigningAlgorithm algorithm;
+
+    @Value("${jwt.keys.rotation-interval:7d}")
+    private Duration rotationInterval;
+
+    // must be longer than the JWKS max-age plus the check interval
+    @Value("${jwt.keys.publish-lead:1h}")
+    private Duration publishLead;
+
+    @Value("${jwt.access-token.expiration:15m}")
+    private Duration accessTokenExpiration;
+
+    // sorted by activation time, replaced as a whole on every reload
+    private volatile List<SigningKey> keys = List.of();
+    private volatile Map<String, SigningKey> keysByKid = Map.of();
+    private volatile long lastReloadMillis;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        rotate();
+    }
+
+    @Scheduled(initialDelayString = "${jwt.keys.check-interval:5m}", fixedDelayString = "${jwt.keys.check-interval:5m}")
+    public void rotate() {
+        Instant now = Instant.now();
+        List<SigningKeyEntity> entities = signingKeyRepository.findAllByOrderByActivatesAtAsc();
+
+        // two nodes may both create a key here; that is harmless, both are published and the later one wins
+        if (entities.isEmpty()) {
+            createKey(now);
+        } else {
+            SigningKeyEntity newest = entities.get(entities.size() - 1);
+            Instant nextActivation = newest.getActivatesAt().toInstant().plus(rotationInterval);
+            boolean algorithmChanged = !algorithm.name().equals(newest.getAlgorithm());
+            if (algorithmChanged || !now.isBefore(nextActivation.minus(publishLead))) {
+                Instant earliest = now.plus(publishLead);
+                createKey(algorithmChanged || nextActivation.isBefore(earliest) ? earliest : nextActivation);
+            }
+            deleteRetired(entities, now);
+        }
+
+        reload();
+    }
+
+    @Override
+    public SigningKey signingKey() {
+        List<SigningKey> current = keys;
+        Instant now = Instant.now();
+        for (int i = current.size() - 1; i >= 0; i--) {
+            if (!current.get(i).activatesAt().isAfter(now)) {
+                return current.get(i);
+            }
+        }
+        if (current.isEmpty()) {
+            throw new IllegalStateException("No signing key available");
+        }
+        return current.get(0);
+    }
+
+    @Override
+    public SigningKey verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        SigningKey key = keysByKid.get(kid);
+        // a key created by another node that this one has not loaded yet; throttled so random kids cannot hammer the database
+        if (key == null && System.currentTimeMillis() - lastReloadMillis > UNKNOWN_KID_RELOAD_MILLIS) {
+            // a lock rather than synchronized: reload queries the database, and a monitor held across I/O pins virtual threads
+            reloadLock.lock();
+            try {
+                if (System.currentTimeMillis() - lastReloadMillis > UNKNOWN_KID_RELOAD_MILLIS) {
+                    reload();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+            key = keysByKid.get(kid);
+        }
+        return key;
+    }
+
+    @Override
+    public SigningKey loadedVerificationKey(String kid) {
+        return kid == null ? null : keysByKid.get(kid);
+    }
+
+    @Override
+    public List<SigningKey> publishedKeys() {
+        return keys;
+    }
+
+    private void createKey(Instant activatesAt) {
+        String kid = UUID.randomUUID().toString();
+        KeyPair keyPair = algorithm.generateKeyPair();
+        signingKeyRepository.save(SigningKeyEntity.builder()
+                .kid(kid)
+                .algorithm(algorithm.name())
+                .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                .encryptedPrivateKey(privateKeyCipher.encrypt(kid, keyPair.getPrivate().getEncoded()))
+                .activatesAt(Timestamp.from(activatesAt))
+                .build());
+        log.info("Generated {} signing key {} active from {}", algorithm, kid, activatesAt);
+    }
+
+    // a key is retired once its successor has been signing for longer than an access token lives
+    private void deleteRetired(List<SigningKeyEntity> entities, Instant now) {
+        Instant cutoff = now.minus(accessTokenExpiration).minus(CLOCK_SKEW);
+        for (int i = 0; i < entities.size() - 1; i++) {
+            if (entities.get(i + 1).getActivatesAt().toInstant().isBefore(cutoff)) {
+                signingKeyRepository.delete(entities.get(i));
+                log.info("Deleted retired signing key {}", entities.get(i).getKid());
+            }
+        }
+    }
+
+    private void reload() {
+        List<SigningKey> loaded = signingKeyRepository.findAllByOrderByActivatesAtAsc().stream()
+                .map(this::toSigningKey)
+                .toList();
+        keys = loaded;
+        keysByKid = loaded.stream().collect(Collectors.toUnmodifiableMap(SigningKey::kid, Function.identity()));
+        lastReloadMillis = System.currentTimeMillis();
+    }
+
+    private SigningKey toSigningKey(SigningKeyEntity entity) {
+        JwtSigningAlgorithm keyAlgorithm = JwtSigningAlgorithm.valueOf(entity.getAlgorithm());
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm.getKeyFactoryAlgorithm());
+            return new SigningKey(
+                    entity.getKid(),
+                    keyAlgorithm,
+                    keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyCipher.decrypt(entity.getKid(), entity.getEncryptedPrivateKey()))),
+                    keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(entity.getPublicKey()))),
+                    entity.getActivatesAt().toInstant());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not load signing key " + entity.getKid(), ex);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.RevokedTokenEntity;
+import com.likhith.springsecurity.repository.RevokedTokenRepository;
+import com.likhith.springsecurity.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.stream.Stream;
+
+// Access token denylist: tbl_revoked_tokens is the source of truth, and every node keeps a Bloom filter
+// of it so the common "not revoked" answer never touches the database. Only probable hits are looked up.
+// Revocations made on other nodes reach this node's filter on the next rebuild.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // null until the first rebuild has run; every check goes to the database in the meantime
+    private volatile BloomFilter filter;
+    // the filter being rebuilt, so revocations racing with the rebuild are not lost when it is swapped in
+    private volatile BloomFilter building;
+
+    // not transactional on purpose: the jti is added to the filters only once the row is committed
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.before(new Date())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedTokenEntity.builder()
+                .jti(jti)
+                .expiresAt(new Timestamp(expiresAt.getTime()))
+                .build());
+
+        // building first: if it is already null here, any rebuild that swaps in a new filter after this point
+        // opened its stream after the row committed, so the filter read below contains the jti either way
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(jti);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return mightBeRevoked(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    // Bloom filter check alone: false means definitely not revoked, without touching the database
+    public boolean mightBeRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        return current == null || current.mightContain(jti);
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(initialDelay = 0, fixedDelayString = "${jwt.revocation.rebuild-interval:30s}")
+    public void rebuild() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // sized for twice the live entries so the false positive rate holds until the next rebuild
+        long active = revokedTokenRepository.countActive(now);
+        int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(expectedInsertions, active * 2));
+
+        BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+        building = next;
+        try (Stream<String> jtis = revokedTokenRepository.streamActiveJtis(now)) {
+            jtis.forEach(next::put);
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.debug("Rebuilt revocation filter with {} entries ({} bits, {} hashes)", active, next.bitCount(), next.hashCount());
+    }
+
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        revokedTokenRepository.deleteExpired(new Timestamp(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,12 @@
+package com.likhith.springsecurity.service;
+
+import java.util.function.Consumer;
+
+// Broadcasts "the token version of this email changed" to every node. Listeners receive the email,
+// or null when messages may have been missed and everything cached should be dropped.
+public interface TokenVersionChannel {
+
+    void publish(String email);
+
+    void subscribe(Consumer<String> listener);
+}
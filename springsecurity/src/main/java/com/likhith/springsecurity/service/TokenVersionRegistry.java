@@ -0,0 +1,124 @@
+package com.likhith.springsecurity.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.likhith.springsecurity.config.CacheConfig;
+import com.likhith.springsecurity.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// email -> current token version. Tokens minted with an older version are rejected, which signs a user
+// out everywhere at once. A cached entry makes the check a single map lookup; changes are pushed to
+// every node through the TokenVersionChannel, and the TTL bounds staleness if a message is lost.
+@Service
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final TokenVersionChannel tokenVersionChannel;
+    private final CacheManager cacheManager;
+
+    @Value("${jwt.token-version.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${jwt.token-version.cache-ttl:5m}")
+    private Duration cacheTtl;
+
+    private AsyncCache<String, Long> versions;
+
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .buildAsync();
+        tokenVersionChannel.subscribe(this::evict);
+    }
+
+    public boolean isCurrent(String email, long tokenVersion) {
+        Long current = currentVersion(email);
+        return current != null && tokenVersion >= current;
+    }
+
+    // Answers from the cache alone, null when the version would have to be loaded, so a non-blocking caller can avoid the query
+    public Boolean isCurrentIfCached(String email, long tokenVersion) {
+        CompletableFuture<Long> cached = versions.getIfPresent(email);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return null;
+        }
+        Long current = cached.join();
+        return current != null && tokenVersion >= current;
+    }
+
+    // Loads on the calling thread. Cache.get(key, loader) runs the loader inside the map's bin lock, which
+    // holds a monitor for the whole query and pins a virtual thread's carrier; concurrent misses for the
+    // same email still share one query through the in-flight future.
+    private Long currentVersion(String email) {
+        CompletableFuture<Long> cached = versions.getIfPresent(email);
+        if (cached == null) {
+            CompletableFuture<Long> loading = new CompletableFuture<>();
+            cached = versions.asMap().putIfAbsent(email, loading);
+            if (cached == null) {
+                try {
+                    Long version = load(email);
+                    // a null version removes the entry again, so unknown users are not cached
+                    loading.complete(version);
+                    return version;
+                } catch (RuntimeException ex) {
+                    loading.completeExceptionally(ex);
+                    throw ex;
+                }
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    // Called after the version column was incremented; other nodes are told once the transaction commits
+    public void versionChanged(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                    tokenVersionChannel.publish(email);
+                }
+            });
+        } else {
+            evict(email);
+            tokenVersionChannel.publish(email);
+        }
+    }
+
+    private Long load(String email) {
+        return userRepository.findTokenVersionByEmail(email).orElse(null);
+    }
+
+    // the cached UserDetails carries the version too, so it goes stale at the same moment
+    private void evict(String email) {
+        org.springframework.cache.Cache userDetailsCache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        if (email == null) {
+            versions.synchronous().invalidateAll();
+            if (userDetailsCache != null) {
+                userDetailsCache.clear();
+            }
+            return;
+        }
+        versions.synchronous().invalidate(email);
+        if (userDetailsCache != null) {
+            userDetailsCache.evict(email);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.likhith.springsecurity.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Roles are not stored per user; the accounts listed in admin.emails get ROLE_ADMIN, everyone else no role
+@Component
+public class UserAuthorities {
+
+    public static final String ADMIN = "ADMIN";
+
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_" + ADMIN));
+
+    private final Set<String> adminEmails;
+
+    public UserAuthorities(@Value("${admin.emails:}") Set<String> adminEmails) {
+        this.adminEmails = adminEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public List<GrantedAuthority> forEmail(String email) {
+        return email != null && adminEmails.contains(email.toLowerCase(Locale.ROOT)) ? ADMIN_AUTHORITIES : List.of();
+    }
+}
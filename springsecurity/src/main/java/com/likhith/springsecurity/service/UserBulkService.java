@@ -0,0 +1,330 @@
+package com.likhith.springsecurity.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.likhith.springsecurity.entity.UserEntity;
+import com.likhith.springsecurity.io.ImportResponse;
+import com.likhith.springsecurity.io.ProfileRequest;
+import com.likhith.springsecurity.io.UserExportRow;
+import com.likhith.springsecurity.repository.UserRepository;
+import com.likhith.springsecurity.util.Csv;
+import com.likhith.springsecurity.util.EmailNormalizer;
+import com.likhith.springsecurity.util.PasswordHashingRejectedException;
+import com.likhith.springsecurity.util.UuidV7;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Bulk onboarding for admins: users are streamed in from NDJSON or CSV and written in JDBC batches, and streamed
+// out the same way. Memory stays bounded by one batch whatever the size of the file.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserBulkService {
+
+    public enum Format { NDJSON, CSV }
+
+    static final List<String> EXPORT_COLUMNS = List.of("userId", "name", "email", "isAccountVerified", "passwordHash");
+
+    // {id}hash for one of the encoders in PasswordEncoderConfig, or a bare BCrypt hash like the legacy rows
+    private static final Pattern PASSWORD_HASH = Pattern.compile("\\{(bcrypt|pbkdf2)}.+|\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+    private static final int HASH_ATTEMPTS = 3;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${admin.import.batch-size:500}")
+    private int batchSize;
+
+    // concurrent hashes one import may have in flight on the shared hashing pool; 0 = half the cores,
+    // so logins keep the other half while a large file is imported
+    @Value("${admin.import.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    @Value("${admin.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ImportResponse importUsers(InputStream input, Format format) throws IOException {
+        Report report = new Report(maxReportedErrors);
+        int parallelism = hashingParallelism > 0 ? hashingParallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             ExecutorService hashers = Executors.newFixedThreadPool(parallelism,
+                     runnable -> Thread.ofPlatform().daemon(true).name("user-import-" + threadCount.incrementAndGet()).unstarted(runnable))) {
+            long lineNumber = 0;
+            Map<String, Integer> csvColumns = null;
+            if (format == Format.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return report.toResponse();
+                }
+                csvColumns = csvColumns(header);
+            }
+
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ImportRow row;
+                try {
+                    row = format == Format.CSV ? parseCsv(lineNumber, line, csvColumns) : parseJson(lineNumber, line);
+                } catch (IllegalArgumentException ex) {
+                    report.reject(lineNumber, null, ex.getMessage());
+                    continue;
+                }
+                String error = validate(row);
+                if (error != null) {
+                    report.reject(row.line(), row.email(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    flush(batch, hashers, report);
+                    batch.clear();
+                }
+            }
+            flush(batch, hashers, report);
+        }
+        log.info("User import finished: {} imported, {} rejected", report.imported, report.rejected);
+        return report.toResponse();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream output, Format format, boolean includePasswordHash) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        List<String> columns = includePasswordHash ? EXPORT_COLUMNS : EXPORT_COLUMNS.subList(0, EXPORT_COLUMNS.size() - 1);
+        if (format == Format.CSV) {
+            writer.write(Csv.formatLine(columns));
+            writer.write('\n');
+        }
+        try (Stream<UserExportRow> rows = userRepository.streamAllForExport()) {
+            Iterator<UserExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                UserExportRow row = includePasswordHash ? iterator.next() : iterator.next().withoutPasswordHash();
+                if (format == Format.CSV) {
+                    List<Object> values = new ArrayList<>(List.of(row.userId() == null ? "" : row.userId(), nullToEmpty(row.name()), row.email(), Boolean.TRUE.equals(row.isAccountVerified())));
+                    if (includePasswordHash) {
+                        values.add(nullToEmpty(row.passwordHash()));
+                    }
+                    writer.write(Csv.formatLine(values));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private void flush(List<ImportRow> batch, ExecutorService hashers, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // cheap lookup first so rows that already exist never cost a hash
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(batch.stream().map(ImportRow::email).toList()));
+
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        List<Future<String>> hashes = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (existing.contains(row.email())) {
+                report.reject(row.line(), row.email(), "Email already in use");
+                continue;
+            }
+            rows.add(row);
+            hashes.add(row.passwordHash() != null ? null : hashers.submit(() -> hash(row.password())));
+        }
+
+        List<ImportRow> inserted = new ArrayList<>(rows.size());
+        List<UserEntity> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            String passwordHash;
+            try {
+                passwordHash = hashes.get(i) == null ? row.passwordHash() : hashes.get(i).get();
+            } catch (ExecutionException ex) {
+                report.reject(row.line(), row.email(), "Password hashing failed: " + ex.getCause().getMessage());
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing imported passwords", ex);
+            }
+            inserted.add(row);
+            users.add(UserEntity.builder()
+                    .userId(UuidV7.generate())
+                    .name(row.name())
+                    .email(row.email())
+                    .password(passwordHash)
+                    .isAccountVerified(row.verified())
+                    .build());
+        }
+
+        int[] counts = userRepository.insertAllIfAbsent(users);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                // a duplicate further up in the same file, or a registration that committed in the meantime
+                report.reject(inserted.get(i).line(), inserted.get(i).email(), "Email already in use");
+            } else {
+                report.imported++;
+            }
+        }
+    }
+
+    // the shared pool rejects work when logins saturate it; an import can afford to wait and retry
+    private String hash(String password) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (PasswordHashingRejectedException ex) {
+                if (attempt == HASH_ATTEMPTS) {
+                    throw ex;
+                }
+                Thread.sleep(100L << attempt);
+            }
+        }
+    }
+
+    private String validate(ImportRow row) {
+        if (row.password() != null && row.passwordHash() != null) {
+            return "Give either password or passwordHash, not both";
+        }
+        if (row.passwordHash() != null && !PASSWORD_HASH.matcher(row.passwordHash()).matches()) {
+            return "Unsupported passwordHash format, expected {bcrypt}/{pbkdf2} or a BCrypt hash";
+        }
+        // same constraints as /register
+        String error = firstViolation("name", row.name());
+        if (error == null) {
+            error = firstViolation("email", row.email());
+        }
+        if (error == null && row.passwordHash() == null) {
+            error = firstViolation("password", row.password());
+        }
+        return error;
+    }
+
+    private String firstViolation(String property, String value) {
+        Set<ConstraintViolation<ProfileRequest>> violations = validator.validateValue(ProfileRequest.class, property, value);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private ImportRow parseJson(long line, String json) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(json);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object per line");
+        }
+        return new ImportRow(line, text(node, "name"), text(node, "email"), text(node, "password"),
+                text(node, "passwordHash"), node.path("isAccountVerified").asBoolean(false));
+    }
+
+    private ImportRow parseCsv(long line, String csv, Map<String, Integer> columns) {
+        List<String> fields = Csv.parseLine(csv);
+        return new ImportRow(line, field(fields, columns, "name"), field(fields, columns, "email"),
+                field(fields, columns, "password"), field(fields, columns, "passwordHash"),
+                Boolean.parseBoolean(field(fields, columns, "isAccountVerified")));
+    }
+
+    // columns are matched by header name, so an export file (with userId, which is ignored) can be imported again
+    private Map<String, Integer> csvColumns(String header) {
+        List<String> names = Csv.parseLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must contain an email column");
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : emptyToNull(fields.get(index).trim());
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : emptyToNull(value.asText().trim());
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private record ImportRow(long line, String name, String email, String password, String passwordHash, boolean verified) {
+        ImportRow {
+            email = EmailNormalizer.normalize(email);
+        }
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<ImportResponse.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String email, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportResponse.RowError(line, email, message));
+            }
+        }
+
+        private ImportResponse toResponse() {
+            return ImportResponse.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errorsTruncated(rejected > errors.size())
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.likhith.springsecurity.util;
+
+import org.springframework.http.ResponseCookie;
+
+import java.time.Duration;
+
+// Cookies carrying the access and refresh tokens (cross-site: Netlify frontend <-> API)
+public final class AuthCookies {
+
+    public static final String ACCESS_TOKEN = "jwt";
+    public static final String REFRESH_TOKEN = "refresh_token";
+
+    private AuthCookies() {
+    }
+
+    public static ResponseCookie accessToken(String token, Duration maxAge) {
+        return build(ACCESS_TOKEN, token, maxAge);
+    }
+
+    public static ResponseCookie refreshToken(String token, Duration maxAge) {
+        return build(REFRESH_TOKEN, token, maxAge);
+    }
+
+    public static ResponseCookie clear(String name) {
+        return build(name, "", Duration.ZERO);
+    }
+
+    private static ResponseCookie build(String name, String value, Duration maxAge) {
+        return ResponseCookie.from(name, value)
+                .httpOnly(true)
+                .secure(true)
+                .path("/")
+                .maxAge(maxAge)
+                .sameSite("None")
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.likhith.springsecurity.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+// Recommends the highest BCrypt cost whose hash time on this machine stays within the target.
+// Each cost step doubles the work, so one measurement at a reference cost is enough to extrapolate.
+// The result is only logged; the cost in use is security.password.bcrypt.strength.
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final int REFERENCE_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 31;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int recommend(Duration targetTime, int minStrength, int configuredStrength) {
+        BCryptPasswordEncoder reference = new BCryptPasswordEncoder(REFERENCE_STRENGTH);
+        reference.encode("calibration-warmup");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            reference.encode("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double ratio = (double) targetTime.toNanos() / best;
+        int strength = REFERENCE_STRENGTH + (int) Math.floor(Math.log(ratio) / Math.log(2));
+        strength = Math.max(minStrength, Math.min(MAX_STRENGTH, strength));
+
+        log.info("BCrypt cost {} measured at {} ms, recommended strength {} for a {} ms target (configured: {})",
+                REFERENCE_STRENGTH, best / 1_000_000, strength, targetTime.toMillis(), configuredStrength);
+        return strength;
+    }
+}
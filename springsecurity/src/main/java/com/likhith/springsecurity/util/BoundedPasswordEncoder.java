@@ -0,0 +1,42 @@
+package com.likhith.springsecurity.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Decorates a PasswordEncoder so encode/matches run on the bounded PasswordHashingExecutor
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+    // what DaoAuthenticationProvider sees per login attempt: queueing plus the hash itself
+    private final OutcomeTimer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.matchesTimer = new OutcomeTimer(meterRegistry, "security.password.matches", "Time to check a password against its stored hash");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            boolean matches = executor.execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+            matchesTimer.record(start, matches ? "match" : "mismatch");
+            return matches;
+        } catch (PasswordHashingRejectedException ex) {
+            matchesTimer.record(start, "rejected");
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
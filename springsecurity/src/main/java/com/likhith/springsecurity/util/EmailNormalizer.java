@@ -0,0 +1,17 @@
+package com.likhith.springsecurity.util;
+
+import java.util.Locale;
+
+// Canonical form of an email address: trimmed and lower-cased. tbl_users only holds canonical emails (enforced by a
+// check constraint), so every email coming from a client or an identity provider goes through here before it is used
+// as a lookup key, a cache key or a rate-limit bucket. Plain equality on the email unique index then matches
+// case-insensitively.
+public final class EmailNormalizer {
+
+    private EmailNormalizer() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,43 @@
+package com.likhith.springsecurity.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.KeyPair;
+
+// Asymmetric algorithms the key ring can sign with; only public keys leave this service
+public enum JwtSigningAlgorithm {
+
+    ES256("EC", Jwts.SIG.ES256) {
+        @Override
+        public KeyPair generateKeyPair() {
+            return Jwts.SIG.ES256.keyPair().build();
+        }
+    },
+    // EdDSA over Ed25519: smaller signatures and cheaper signing than ES256
+    ED25519("Ed25519", Jwts.SIG.EdDSA) {
+        @Override
+        public KeyPair generateKeyPair() {
+            return Jwks.CRV.Ed25519.keyPair().build();
+        }
+    };
+
+    private final String keyFactoryAlgorithm;
+    private final SignatureAlgorithm jwsAlgorithm;
+
+    JwtSigningAlgorithm(String keyFactoryAlgorithm, SignatureAlgorithm jwsAlgorithm) {
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+        this.jwsAlgorithm = jwsAlgorithm;
+    }
+
+    public abstract KeyPair generateKeyPair();
+
+    public String getKeyFactoryAlgorithm() {
+        return keyFactoryAlgorithm;
+    }
+
+    public SignatureAlgorithm getJwsAlgorithm() {
+        return jwsAlgorithm;
+    }
+}
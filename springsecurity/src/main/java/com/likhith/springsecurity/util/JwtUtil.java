@@ -1,54 +1,191 @@
 package com.likhith.springsecurity.util;
 
+import com.likhith.springsecurity.service.AppUserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
-    @Value("${jwt.secret.key}")
-    private String SECRET_KEY;
+    private final SigningKeyProvider signingKeyProvider;
+    private final MeterRegistry meterRegistry;
 
-    private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
+    // short-lived; clients renew through /refresh with their rotating refresh token
+    @Value("${jwt.access-token.expiration:15m}")
+    private Duration accessTokenExpiration;
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String AUTHORITIES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    // Immutable and thread-safe, so they are built once and shared by every request
+    private JwtParser jwtParser;
+    // only knows the keys already loaded, for callers that must not block on a key reload
+    private JwtParser loadedKeysParser;
+    private OutcomeTimer signTimer;
+    private OutcomeTimer verifyTimer;
+
+    @PostConstruct
+    public void init() {
+        signTimer = new OutcomeTimer(meterRegistry, "security.jwt.sign", "Time to build and sign an access token");
+        verifyTimer = new OutcomeTimer(meterRegistry, "security.jwt.verify", "Time to parse and verify an access token");
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        SigningKey key = signingKeyProvider.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key " + header.getKeyId());
+                        }
+                        return verificationKey(header, key);
+                    }
+                })
+                .build();
+        this.loadedKeysParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        SigningKey key = signingKeyProvider.loadedVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnknownSigningKeyException(header.getKeyId());
+                        }
+                        return verificationKey(header, key);
+                    }
+                })
+                .build();
+    }
+
+    // the token names its key through kid; the header alg must be the one that key was made for
+    private Key verificationKey(JwsHeader header, SigningKey key) {
+        if (!key.algorithm().getJwsAlgorithm().getId().equals(header.getAlgorithm())) {
+            throw new JwtException("Signing key " + key.kid() + " does not use " + header.getAlgorithm());
+        }
+        return key.publicKey();
+    }
+
+    public Duration getAccessTokenExpiration() {
+        return accessTokenExpiration;
+    }
 
     public String generateToken(UserDetails userDetails){
         Map<String, Object> claims = new HashMap<>();
+        // embedded so the stateless filter mode can rebuild the principal without a DB lookup
+        if (userDetails instanceof AppUserDetails appUserDetails) {
+            if (appUserDetails.getUserId() != null) {
+                claims.put(USER_ID_CLAIM, appUserDetails.getUserId());
+            }
+            claims.put(TOKEN_VERSION_CLAIM, appUserDetails.getTokenVersion());
+        }
+        claims.put(AUTHORITIES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
        return createToken(claims, userDetails.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String email) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(email )
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        SigningKey key = signingKeyProvider.signingKey();
+        String token = Jwts.builder()
+                .header().keyId(key.kid()).and()
+                .claims(claims)
+                // unique id so a single token can be revoked before it expires
+                .id(UUID.randomUUID().toString())
+                .subject(email)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessTokenExpiration.toMillis()))
+                .signWith(key.privateKey(), key.algorithm().getJwsAlgorithm())
                 .compact();
+        signTimer.record(start, key.algorithm().name());
+        return token;
+    }
+
+    // Parses and verifies the token once; throws JwtException if it is malformed, tampered or expired
+    public VerifiedToken verify(String token) {
+        return toVerifiedToken(verifyTimed(jwtParser, token));
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Same as verify, but never blocks: a kid that is not loaded yet throws UnknownSigningKeyException instead of
+    // reloading the key ring, and the caller decides where the blocking verify may run
+    public VerifiedToken verifyWithLoadedKeys(String token) {
+        return toVerifiedToken(verifyTimed(loadedKeysParser, token));
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, String.class),
+                extractAuthorities(claims),
+                extractTokenVersion(claims),
+                claims.getIssuedAt(),
+                claims.getExpiration());
+    }
+
+    private Claims verifyTimed(JwtParser parser, String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifyTimer.record(start, "success");
+            return claims;
+        } catch (UnknownSigningKeyException ex) {
+            verifyTimer.record(start, "unknown-key");
+            throw ex;
+        } catch (ExpiredJwtException ex) {
+            verifyTimer.record(start, "expired");
+            throw ex;
+        } catch (SignatureException ex) {
+            verifyTimer.record(start, "bad-signature");
+            throw ex;
+        } catch (MalformedJwtException | IllegalArgumentException ex) {
+            verifyTimer.record(start, "malformed");
+            throw ex;
+        } catch (JwtException ex) {
+            verifyTimer.record(start, "invalid");
+            throw ex;
+        }
+    }
+
+    private List<String> extractAuthorities(Claims claims) {
+        Object authorities = claims.get(AUTHORITIES_CLAIM);
+        if (!(authorities instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    private long extractTokenVersion(Claims claims) {
+        return claims.get(TOKEN_VERSION_CLAIM) instanceof Number version ? version.longValue() : 0;
     }
 
     private Claims extractAllClaims(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver){
@@ -64,12 +201,11 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.getExpiration());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verify(token), userDetails);
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return email .equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.email() != null && token.email().equals(userDetails.getUsername()) && !token.isExpired();
     }
 }
@@ -0,0 +1,48 @@
+package com.likhith.springsecurity.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+// HMAC instead of a plain digest: a 6 digit code has only a million values, so an unkeyed hash
+// leaked from the OTP table would be trivial to reverse
+@Component
+public class OtpHasher {
+
+    @Value("${otp.hash.secret:${jwt.secret.key}}")
+    private String secret;
+
+    private SecretKeySpec keySpec;
+
+    @PostConstruct
+    public void init() {
+        keySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    public String hash(String email, String purpose, String otp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(keySpec);
+            byte[] digest = mac.doFinal((purpose + ':' + email + ':' + otp).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+
+    public boolean matches(String expectedHash, String email, String purpose, String otp) {
+        if (expectedHash == null || otp == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                expectedHash.getBytes(StandardCharsets.US_ASCII),
+                hash(email, purpose, otp).getBytes(StandardCharsets.US_ASCII));
+    }
+}
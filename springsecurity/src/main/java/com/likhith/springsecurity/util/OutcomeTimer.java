@@ -0,0 +1,29 @@
+package com.likhith.springsecurity.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// One latency histogram per outcome tag. The timers are registered on first use and then reused,
+// so recording on a hot path is a map lookup and no builder or tag allocation.
+public class OutcomeTimer {
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Function<String, Timer> register;
+
+    public OutcomeTimer(MeterRegistry meterRegistry, String name, String description) {
+        this.register = outcome -> Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void record(long startNanos, String outcome) {
+        timers.computeIfAbsent(outcome, register).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
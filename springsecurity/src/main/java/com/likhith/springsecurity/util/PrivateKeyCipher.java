@@ -0,0 +1,67 @@
+package com.likhith.springsecurity.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Encrypts signing private keys at rest with AES-GCM. The key encryption key is derived from
+// jwt.keys.encryption-secret, and the kid is bound as associated data so rows cannot be swapped.
+@Component
+public class PrivateKeyCipher {
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    @Value("${jwt.keys.encryption-secret:${jwt.secret.key}}")
+    private String secret;
+
+    private SecretKeySpec keySpec;
+
+    @PostConstruct
+    public void init() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            keySpec = new SecretKeySpec(mac.doFinal("jwt-signing-key-encryption".getBytes(StandardCharsets.UTF_8)), "AES");
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+
+    public String encrypt(String kid, byte[] privateKey) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            SECURE_RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] cipherText = cipher.doFinal(privateKey);
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not encrypt signing key " + kid, ex);
+        }
+    }
+
+    public byte[] decrypt(String kid, String encrypted) {
+        try {
+            byte[] bytes = Base64.getDecoder().decode(encrypted);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_LENGTH));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not decrypt signing key " + kid + ", was the encryption secret changed?", ex);
+        }
+    }
+}
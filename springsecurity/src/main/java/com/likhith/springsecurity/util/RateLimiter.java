@@ -0,0 +1,89 @@
+package com.likhith.springsecurity.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Token buckets for the throttled endpoints, keyed by client IP and by target email.
+// Shared by the servlet RateLimitFilter and the reactive handlers so both stacks apply the same limits.
+public class RateLimiter {
+
+    public enum Target {
+        LOGIN, RESET_OTP, VERIFY_OTP, RESET_PASSWORD, VERIFY_EMAIL
+    }
+
+    private final Cache<String, TokenBucket> buckets;
+    private final Rule loginRule;
+    private final Rule resetOtpRule;
+    private final Rule verifyOtpRule;
+    private final Rule otpCheckRule;
+
+    public RateLimiter(long maxKeys, int loginCapacity, Duration loginRefillPeriod, int otpCapacity, Duration otpRefillPeriod,
+                       int otpCheckCapacity, Duration otpCheckRefillPeriod) {
+        loginRule = new Rule(loginCapacity, loginRefillPeriod);
+        resetOtpRule = new Rule(otpCapacity, otpRefillPeriod);
+        verifyOtpRule = new Rule(otpCapacity, otpRefillPeriod);
+        otpCheckRule = new Rule(otpCheckCapacity, otpCheckRefillPeriod);
+
+        // a bucket left idle for a whole refill period is full again, so dropping it loses nothing
+        Duration idleTimeout = loginRefillPeriod;
+        if (otpRefillPeriod.compareTo(idleTimeout) > 0) {
+            idleTimeout = otpRefillPeriod;
+        }
+        if (otpCheckRefillPeriod.compareTo(idleTimeout) > 0) {
+            idleTimeout = otpCheckRefillPeriod;
+        }
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    // the throttled POST endpoints, null for everything else
+    public static Target target(String path) {
+        return switch (path) {
+            case "/login" -> Target.LOGIN;
+            case "/send-reset-otp" -> Target.RESET_OTP;
+            case "/send-otp" -> Target.VERIFY_OTP;
+            case "/reset-password" -> Target.RESET_PASSWORD;
+            case "/verify-otp" -> Target.VERIFY_EMAIL;
+            default -> null;
+        };
+    }
+
+    // 0 when the request may proceed, otherwise the nanoseconds until the next token
+    public long tryConsume(Target target, String clientIp, String email) {
+        long now = System.nanoTime();
+        long waitNanos = consume(target, "ip:" + clientIp, now);
+        if (waitNanos == 0 && email != null) {
+            waitNanos = consume(target, "email:" + EmailNormalizer.normalize(email), now);
+        }
+        return waitNanos;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private long consume(Target target, String key, long now) {
+        Rule rule = rule(target);
+        TokenBucket bucket = buckets.get(target.name() + ':' + key,
+                k -> new TokenBucket(rule.capacity(), rule.refillPeriod().toNanos()));
+        return bucket.tryConsume(now);
+    }
+
+    private Rule rule(Target target) {
+        return switch (target) {
+            case LOGIN -> loginRule;
+            case RESET_OTP -> resetOtpRule;
+            case VERIFY_OTP -> verifyOtpRule;
+            // the OTP guesses share one bucket per key, whichever endpoint they come through
+            case RESET_PASSWORD, VERIFY_EMAIL -> otpCheckRule;
+        };
+    }
+
+    private record Rule(int capacity, Duration refillPeriod) {
+    }
+}
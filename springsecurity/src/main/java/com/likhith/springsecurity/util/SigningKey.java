@@ -0,0 +1,9 @@
+package com.likhith.springsecurity.util;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+
+// One entry of the key ring; privateKey is only used while this is the newest active key
+public record SigningKey(String kid, JwtSigningAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey, Instant activatesAt) {
+}
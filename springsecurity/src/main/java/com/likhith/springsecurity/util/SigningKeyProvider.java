@@ -0,0 +1,20 @@
+package com.likhith.springsecurity.util;
+
+import java.util.List;
+
+public interface SigningKeyProvider {
+
+    // the newest key whose activation time has passed
+    SigningKey signingKey();
+
+    // null when the kid is unknown or retired
+    SigningKey verificationKey(String kid);
+
+    // same, from the keys already in memory: never blocks, so a kid this node has not loaded yet is null here
+    default SigningKey loadedVerificationKey(String kid) {
+        return verificationKey(kid);
+    }
+
+    // every key a downstream verifier may meet: upcoming, active and still-verifiable retired keys
+    List<SigningKey> publishedKeys();
+}
@@ -0,0 +1,35 @@
+package com.likhith.springsecurity.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket implemented as GCRA: the whole bucket state is one "theoretical arrival time"
+// updated with CAS, so concurrent requests never block each other and no refill thread is needed.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, long refillPeriodNanos) {
+        if (capacity <= 0 || refillPeriodNanos <= 0) {
+            throw new IllegalArgumentException("capacity and refill period must be positive");
+        }
+        this.emissionIntervalNanos = refillPeriodNanos / capacity;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds to wait until one is available
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long arrival = current == Long.MIN_VALUE ? nowNanos : Math.max(current, nowNanos);
+            long waitNanos = arrival - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
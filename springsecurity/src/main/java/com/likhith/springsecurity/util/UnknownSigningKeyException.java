@@ -0,0 +1,11 @@
+package com.likhith.springsecurity.util;
+
+import io.jsonwebtoken.JwtException;
+
+// The token names a kid that is not among the keys loaded on this node (see JwtUtil.verifyWithLoadedKeys)
+public class UnknownSigningKeyException extends JwtException {
+
+    public UnknownSigningKeyException(String kid) {
+        super("Signing key " + kid + " is not loaded");
+    }
+}
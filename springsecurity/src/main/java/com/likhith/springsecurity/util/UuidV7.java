@@ -0,0 +1,27 @@
+package com.likhith.springsecurity.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered UUIDs (RFC 9562 version 7): 48-bit Unix milliseconds followed by random bits. New ids land at the
+// right edge of the user_id index instead of on random leaf pages. Ids from this JVM are strictly increasing:
+// within one millisecond (or if the clock steps back) the 12-bit rand_a field acts as a counter.
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // unix millis << 12 | rand_a of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(System.currentTimeMillis() << 12, last + 1));
+        long msb = (timeAndCounter >>> 12) << 16
+                | 0x7000L
+                | (timeAndCounter & 0x0FFFL);
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,16 @@
+package com.likhith.springsecurity.util;
+
+import java.util.Date;
+import java.util.List;
+
+// Claims of a token whose signature and expiry were already checked by JwtUtil.verify
+public record VerifiedToken(String jti, String email, String userId, List<String> authorities, long tokenVersion, Date issuedAt, Date expiration) {
+
+    public VerifiedToken {
+        authorities = authorities == null ? List.of() : List.copyOf(authorities);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
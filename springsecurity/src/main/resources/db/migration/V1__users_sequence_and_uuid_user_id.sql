@@ -0,0 +1,23 @@
+-- tbl_users: IDENTITY id -> pooled sequence, varchar user_id -> native uuid.
+-- Run once against an existing database BEFORE deploying the version of UserEntity that uses tbl_users_seq;
+-- fresh databases get the same schema from Hibernate. Safe to run again.
+-- The type change rewrites tbl_users under an ACCESS EXCLUSIVE lock, so run it in a maintenance window on large tables.
+
+BEGIN;
+
+-- 1. Pooled sequence. INCREMENT BY must equal allocationSize in UserEntity: Hibernate reserves ids
+--    (value - 49 .. value) per nextval, so the next value must be at least max(id) + 50.
+CREATE SEQUENCE IF NOT EXISTS tbl_users_seq INCREMENT BY 50;
+ALTER SEQUENCE tbl_users_seq INCREMENT BY 50;
+SELECT setval('tbl_users_seq', COALESCE((SELECT max(id) FROM tbl_users), 0) + 50, false);
+
+-- default for inserts outside the application; its own native inserts call nextval themselves
+ALTER TABLE tbl_users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tbl_users ALTER COLUMN id SET DEFAULT nextval('tbl_users_seq');
+ALTER SEQUENCE tbl_users_seq OWNED BY tbl_users.id;
+
+-- 2. user_id as 16-byte uuid instead of 36 characters of text; the unique index is rebuilt with the column.
+--    Existing ids keep their random v4 values, new ones are time-ordered v7.
+ALTER TABLE tbl_users ALTER COLUMN user_id TYPE uuid USING user_id::uuid;
+
+COMMIT;
@@ -0,0 +1,58 @@
+-- tbl_users.email in canonical form (trimmed, lower-case, see EmailNormalizer), enforced by a check constraint.
+-- With every stored email canonical, the existing unique index on email is case-insensitive in effect, and lookups
+-- keep using plain equality on it. A second, functional unique index on lower(email) would cost every write and
+-- only help queries written as lower(email) = ?. citext would also work, but compares as text (case-sensitive,
+-- no index) when pgjdbc binds the parameter as varchar.
+-- Run once BEFORE deploying the version that normalizes emails; fresh databases get the check from Hibernate.
+-- Safe to run again.
+
+BEGIN;
+
+-- Accounts whose emails differ only in case cannot be merged automatically: each has its own password,
+-- verification state and sessions. Per address the verified account (then the oldest) is kept; the others are
+-- recorded here for manual review and moved aside.
+CREATE TABLE IF NOT EXISTS tbl_user_email_conflicts (
+    user_pk         bigint PRIMARY KEY,
+    original_email  varchar(255) NOT NULL,
+    canonical_email varchar(255) NOT NULL,
+    kept_user_pk    bigint NOT NULL,
+    flagged_at      timestamp NOT NULL DEFAULT now()
+);
+
+WITH ranked AS (
+    SELECT id,
+           email,
+           lower(btrim(email)) AS canonical,
+           first_value(id) OVER w AS kept_id,
+           row_number() OVER w AS rank
+    FROM tbl_users
+    WINDOW w AS (PARTITION BY lower(btrim(email)) ORDER BY coalesce(is_account_verified, false) DESC, id)
+)
+INSERT INTO tbl_user_email_conflicts (user_pk, original_email, canonical_email, kept_user_pk)
+SELECT id, email, canonical, kept_id
+FROM ranked
+WHERE rank > 1
+ON CONFLICT (user_pk) DO NOTHING;
+
+-- sessions and codes of flagged accounts end here, before their email is canonicalized into the kept account's
+DELETE FROM tbl_refresh_tokens r USING tbl_user_email_conflicts c WHERE r.email = c.original_email;
+DELETE FROM tbl_otps o USING tbl_user_email_conflicts c WHERE o.email = c.original_email;
+
+-- flagged accounts get an address that is canonical, unique and undeliverable (.invalid is reserved, RFC 2606);
+-- the token version bump invalidates access tokens they still hold
+UPDATE tbl_users u
+SET email = 'conflict-' || u.id || '@email-conflict.invalid',
+    token_version = coalesce(u.token_version, 0) + 1
+FROM tbl_user_email_conflicts c
+WHERE u.id = c.user_pk
+  AND u.email = c.original_email;
+
+UPDATE tbl_users SET email = lower(btrim(email)) WHERE email <> lower(btrim(email));
+UPDATE tbl_refresh_tokens SET email = lower(btrim(email)) WHERE email <> lower(btrim(email));
+-- OTPs live for minutes; re-requesting one is cheaper than reconciling (email, purpose) collisions
+DELETE FROM tbl_otps WHERE email <> lower(btrim(email));
+
+ALTER TABLE tbl_users DROP CONSTRAINT IF EXISTS ck_tbl_users_email_canonical;
+ALTER TABLE tbl_users ADD CONSTRAINT ck_tbl_users_email_canonical CHECK (email = lower(btrim(email)));
+
+COMMIT;
@@ -0,0 +1,26 @@
+-- OTP mails: the outbox keeps the plaintext code only while the row is PENDING or SENDING, and dead letters never
+-- get it (EmailOutboxEntity.sensitive). Rows written before the flag existed still hold live codes, so they are
+-- flagged by subject and their bodies dropped. Run once BEFORE deploying the version that reads the column.
+-- Safe to run again.
+
+BEGIN;
+
+ALTER TABLE tbl_email_outbox ADD COLUMN IF NOT EXISTS sensitive boolean NOT NULL DEFAULT false;
+
+UPDATE tbl_email_outbox
+SET sensitive = true
+WHERE subject IN ('Your Password Reset OTP', 'Your OTP Verification Code')
+  AND NOT sensitive;
+
+UPDATE tbl_email_outbox
+SET body = NULL
+WHERE sensitive
+  AND status IN ('SENT', 'FAILED')
+  AND body IS NOT NULL;
+
+UPDATE tbl_mail_dead_letters
+SET body = NULL
+WHERE subject IN ('Your Password Reset OTP', 'Your OTP Verification Code')
+  AND body IS NOT NULL;
+
+COMMIT;
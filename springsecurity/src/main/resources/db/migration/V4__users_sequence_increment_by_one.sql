@@ -0,0 +1,11 @@
+-- V1 created tbl_users_seq with INCREMENT BY 50 for a pooled allocation that never paid off.
+-- Every native insert calls nextval itself, so each registration or imported row used up a block of 50 ids.
+-- Run BEFORE deploying the version of UserEntity with allocationSize = 1. Safe to run again.
+-- The values already handed out stay as they are; new ids continue after the highest one.
+
+BEGIN;
+
+ALTER SEQUENCE tbl_users_seq INCREMENT BY 1;
+SELECT setval('tbl_users_seq', greatest(COALESCE((SELECT max(id) FROM tbl_users), 0), (SELECT last_value FROM tbl_users_seq)) + 1, false);
+
+COMMIT;
@@ -0,0 +1,4 @@
+-- Wrong OTP guesses are counted per code (OtpEntity.failedAttempts) and the code is deleted after
+-- otp.max-attempts misses. Run before deploying the version that maps the column. Safe to run again.
+
+ALTER TABLE tbl_otps ADD COLUMN IF NOT EXISTS failed_attempts integer NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- RefreshTokenRepository.revokeAllForEmail filters tbl_refresh_tokens by email. Built CONCURRENTLY so
+-- logins and refreshes keep writing meanwhile, which also means this must not run inside a transaction.
+-- Safe to run again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_email ON tbl_refresh_tokens (email);
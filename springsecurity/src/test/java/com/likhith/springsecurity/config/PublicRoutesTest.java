@@ -0,0 +1,37 @@
+package com.likhith.springsecurity.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicRoutesTest {
+
+    private final PublicRoutes publicRoutes = new PublicRoutes();
+
+    @Test
+    void literalAndWildcardRoutesMatch() {
+        assertThat(publicRoutes.matches("/login")).isTrue();
+        assertThat(publicRoutes.matches("/.well-known/jwks.json")).isTrue();
+        assertThat(publicRoutes.matches("/oauth2/authorization/google")).isTrue();
+        assertThat(publicRoutes.matches("/login/oauth2/code/google")).isTrue();
+        assertThat(publicRoutes.matches("/swagger-ui/index.html")).isTrue();
+        assertThat(publicRoutes.matches("/v3/api-docs/swagger-config")).isTrue();
+    }
+
+    @Test
+    void protectedRoutesDoNotMatch() {
+        assertThat(publicRoutes.matches("/profile")).isFalse();
+        assertThat(publicRoutes.matches("/send-otp")).isFalse();
+        assertThat(publicRoutes.matches("/login/other")).isFalse();
+        assertThat(publicRoutes.matches("/oauth2x/anything")).isFalse();
+    }
+
+    @Test
+    void contextPathIsIgnored() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/swagger-ui/index.html");
+        request.setContextPath("/api");
+
+        assertThat(publicRoutes.matches(request)).isTrue();
+    }
+}
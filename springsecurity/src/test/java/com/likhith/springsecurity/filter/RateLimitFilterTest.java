@@ -0,0 +1,148 @@
+package com.likhith.springsecurity.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter rateLimitFilter;
+
+    // stands in for the BCrypt verification behind /login
+    private final AtomicInteger passwordChecks = new AtomicInteger();
+    private final FilterChain loginEndpoint = (request, response) -> {
+        request.getInputStream().readAllBytes();
+        passwordChecks.incrementAndGet();
+    };
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter(new ObjectMapper());
+        ReflectionTestUtils.setField(rateLimitFilter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimitFilter, "maxKeys", 10_000L);
+        ReflectionTestUtils.setField(rateLimitFilter, "loginCapacity", 10);
+        ReflectionTestUtils.setField(rateLimitFilter, "loginRefillPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(rateLimitFilter, "otpCapacity", 3);
+        ReflectionTestUtils.setField(rateLimitFilter, "otpRefillPeriod", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(rateLimitFilter, "otpCheckCapacity", 10);
+        ReflectionTestUtils.setField(rateLimitFilter, "otpCheckRefillPeriod", Duration.ofMinutes(15));
+        rateLimitFilter.init();
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfterOnceTheBucketIsEmpty() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(login("10.0.0.1", "victim@example.com").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = login("10.0.0.1", "victim@example.com");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 60L);
+        assertThat(passwordChecks.get()).isEqualTo(10);
+    }
+
+    @Test
+    void credentialStuffingBurstOnlyReachesPasswordCheckForTheBucketCapacity() throws Exception {
+        // 20k attempts against one account from 200 addresses, plus one address spraying many accounts
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> attempts = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String ip = "10.1.0." + (i % 200);
+            attempts.add(() -> login(ip, "Victim@Example.com").getStatus());
+        }
+        for (int i = 0; i < 5_000; i++) {
+            String email = "user" + i + "@example.com";
+            attempts.add(() -> login("192.168.0.66", email).getStatus());
+        }
+
+        int tooManyRequests = 0;
+        for (Future<Integer> status : executor.invokeAll(attempts)) {
+            if (status.get() == 429) {
+                tooManyRequests++;
+            }
+        }
+        executor.shutdown();
+
+        // one bucket for the targeted email, one for the spraying address
+        assertThat(passwordChecks.get()).isEqualTo(20);
+        assertThat(tooManyRequests).isEqualTo(25_000 - 20);
+    }
+
+    @Test
+    void resetOtpIsLimitedPerEmailAcrossAddresses() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(sendResetOtp("10.0.0." + i, "user@example.com").getStatus()).isEqualTo(200);
+        }
+        assertThat(sendResetOtp("10.0.0.99", "USER@example.com").getStatus()).isEqualTo(429);
+        assertThat(sendResetOtp("10.0.0.99", "other@example.com").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void resetPasswordGuessesAreLimitedPerEmailAndTheBodyStillReachesTheController() throws Exception {
+        List<String> bodies = new ArrayList<>();
+        FilterChain resetEndpoint = (request, response) -> bodies.add(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(resetPassword("10.0.1." + i, "user@example.com", resetEndpoint).getStatus()).isEqualTo(200);
+        }
+        assertThat(resetPassword("10.0.1.99", "User@Example.com", resetEndpoint).getStatus()).isEqualTo(429);
+        assertThat(bodies).hasSize(10).allSatisfy(body -> assertThat(body).contains("\"otp\":\"123456\""));
+    }
+
+    @Test
+    void otherEndpointsAreNotLimited() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/profile");
+            request.setServletPath("/profile");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            rateLimitFilter.doFilter(request, response, (req, res) -> { });
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setServletPath("/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret123\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, loginEndpoint);
+        return response;
+    }
+
+    private MockHttpServletResponse resetPassword(String ip, String email, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/reset-password");
+        request.setServletPath("/reset-password");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"otp\":\"123456\",\"newPassword\":\"secret123\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse sendResetOtp(String ip, String email) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/send-reset-otp");
+        request.setServletPath("/send-reset-otp");
+        request.setRemoteAddr(ip);
+        request.setParameter("email", email);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, (req, res) -> { });
+        return response;
+    }
+}
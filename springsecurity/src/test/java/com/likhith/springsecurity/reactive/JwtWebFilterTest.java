@@ -0,0 +1,151 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.config.PublicRoutes;
+import com.likhith.springsecurity.service.AppUserDetails;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.service.TokenVersionRegistry;
+import com.likhith.springsecurity.util.AuthCookies;
+import com.likhith.springsecurity.util.JwtSigningAlgorithm;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.SigningKey;
+import com.likhith.springsecurity.util.SigningKeyProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtWebFilterTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final ReactiveUserDetailsService userDetailsService = mock(ReactiveUserDetailsService.class);
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private final TokenVersionRegistry tokenVersionRegistry = mock(TokenVersionRegistry.class);
+    private final AtomicReference<String> authenticatedAs = new AtomicReference<>();
+    private SigningKeyProvider keys;
+    private JwtUtil jwtUtil;
+    private JwtWebFilter filter;
+
+    // records who the downstream handlers would see as authenticated
+    private final WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .map(Authentication::getName)
+            .doOnNext(authenticatedAs::set)
+            .then();
+
+    @BeforeEach
+    void setUp() {
+        KeyPair keyPair = JwtSigningAlgorithm.ES256.generateKeyPair();
+        SigningKey key = new SigningKey("kid-1", JwtSigningAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), Instant.EPOCH);
+        keys = mock(SigningKeyProvider.class);
+        when(keys.signingKey()).thenReturn(key);
+        when(keys.verificationKey("kid-1")).thenReturn(key);
+        when(keys.loadedVerificationKey("kid-1")).thenReturn(key);
+
+        // the servlet stack's JwtUtil mints the tokens, so both stacks must accept the same format
+        jwtUtil = new JwtUtil(keys, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", Duration.ofMinutes(15));
+        jwtUtil.init();
+
+        filter = new JwtWebFilter(userDetailsService, jwtUtil, tokenRevocationService, tokenVersionRegistry, new PublicRoutes(), false);
+        when(userDetailsService.findByUsername(EMAIL)).thenReturn(Mono.just(user(3)));
+        when(tokenVersionRegistry.isCurrentIfCached(EMAIL, 3)).thenReturn(true);
+    }
+
+    @Test
+    void acceptsTheServletStackTokenFromHeaderOrCookieWithoutBlocking() {
+        String token = jwtUtil.generateToken(user(3));
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/profile").header("Authorization", "Bearer " + token)), chain).block();
+        assertThat(authenticatedAs.getAndSet(null)).isEqualTo(EMAIL);
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/profile").cookie(new HttpCookie(AuthCookies.ACCESS_TOKEN, token))), chain).block();
+        assertThat(authenticatedAs.get()).isEqualTo(EMAIL);
+
+        // answered from the cache and the Bloom filter, no query
+        verify(tokenRevocationService, never()).isRevoked(anyString());
+        verify(tokenVersionRegistry, never()).isCurrent(anyString(), anyLong());
+    }
+
+    @Test
+    void revokedOrOutdatedTokensStayUnauthenticated() {
+        String token = jwtUtil.generateToken(user(3));
+        when(tokenRevocationService.mightBeRevoked(any())).thenReturn(true);
+        when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/profile").header("Authorization", "Bearer " + token)), chain).block();
+        assertThat(authenticatedAs.get()).isNull();
+
+        String outdated = jwtUtil.generateToken(user(2));
+        when(tokenRevocationService.mightBeRevoked(any())).thenReturn(false);
+        when(tokenVersionRegistry.isCurrentIfCached(EMAIL, 2)).thenReturn(false);
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/profile").header("Authorization", "Bearer " + outdated)), chain).block();
+        assertThat(authenticatedAs.get()).isNull();
+    }
+
+    @Test
+    void unknownKidIsLookedUpOffTheCallingThread() {
+        // a key another node created that this one has not loaded: only the blocking lookup finds it
+        KeyPair keyPair = JwtSigningAlgorithm.ES256.generateKeyPair();
+        SigningKey newKey = new SigningKey("kid-2", JwtSigningAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), Instant.EPOCH);
+        when(keys.signingKey()).thenReturn(newKey);
+        String token = jwtUtil.generateToken(user(3));
+        AtomicReference<String> lookupThread = new AtomicReference<>();
+        when(keys.verificationKey("kid-2")).thenAnswer(invocation -> {
+            lookupThread.set(Thread.currentThread().getName());
+            return newKey;
+        });
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/profile").header("Authorization", "Bearer " + token)), chain).block();
+
+        assertThat(authenticatedAs.get()).isEqualTo(EMAIL);
+        assertThat(lookupThread.get()).startsWith("boundedElastic").isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void forgedKidStaysUnauthenticated() {
+        KeyPair keyPair = JwtSigningAlgorithm.ES256.generateKeyPair();
+        when(keys.signingKey()).thenReturn(new SigningKey("forged", JwtSigningAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), Instant.EPOCH));
+        String token = jwtUtil.generateToken(user(3));
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/profile").header("Authorization", "Bearer " + token)), chain).block();
+
+        assertThat(authenticatedAs.get()).isNull();
+        verify(keys).verificationKey("forged");
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
+    }
+
+    @Test
+    void publicRoutesAreNotInspected() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/login").header("Authorization", "Bearer not-a-token")), chain).block();
+
+        assertThat(authenticatedAs.get()).isNull();
+        verifyNoInteractions(tokenRevocationService, tokenVersionRegistry, userDetailsService);
+    }
+
+    private static AppUserDetails user(long tokenVersion) {
+        return new AppUserDetails(EMAIL, "", List.of(), "user-id", tokenVersion);
+    }
+}
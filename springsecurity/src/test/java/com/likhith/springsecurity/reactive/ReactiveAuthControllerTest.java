@@ -0,0 +1,67 @@
+package com.likhith.springsecurity.reactive;
+
+import com.likhith.springsecurity.service.AppUserDetails;
+import com.likhith.springsecurity.service.RefreshTokenService;
+import com.likhith.springsecurity.service.TokenRevocationService;
+import com.likhith.springsecurity.util.JwtSigningAlgorithm;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.SigningKey;
+import com.likhith.springsecurity.util.SigningKeyProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReactiveAuthControllerTest {
+
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private SigningKeyProvider keys;
+    private JwtUtil jwtUtil;
+    private ReactiveAuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        keys = mock(SigningKeyProvider.class);
+        jwtUtil = new JwtUtil(keys, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", Duration.ofMinutes(15));
+        jwtUtil.init();
+
+        controller = new ReactiveAuthController(null, null, jwtUtil, null, refreshTokenService, tokenRevocationService,
+                null, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void logoutLooksUpAnUnknownKidOffTheCallingThread() {
+        // /logout is public, so the JwtWebFilter has not resolved this node-unknown key beforehand
+        KeyPair keyPair = JwtSigningAlgorithm.ES256.generateKeyPair();
+        SigningKey newKey = new SigningKey("kid-2", JwtSigningAlgorithm.ES256, keyPair.getPrivate(), keyPair.getPublic(), Instant.EPOCH);
+        when(keys.signingKey()).thenReturn(newKey);
+        String token = jwtUtil.generateToken(new AppUserDetails("user@example.com", "", List.of(), "user-id", 0));
+        AtomicReference<String> lookupThread = new AtomicReference<>();
+        when(keys.verificationKey("kid-2")).thenAnswer(invocation -> {
+            lookupThread.set(Thread.currentThread().getName());
+            return newKey;
+        });
+
+        ResponseEntity<String> response = controller.logout("Bearer " + token, null, "refresh-token").block();
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(lookupThread.get()).startsWith("boundedElastic").isNotEqualTo(Thread.currentThread().getName());
+        verify(tokenRevocationService).revoke(anyString(), any(Date.class));
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+}
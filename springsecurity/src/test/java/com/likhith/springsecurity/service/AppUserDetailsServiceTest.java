@@ -0,0 +1,61 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.config.CacheConfig;
+import com.likhith.springsecurity.repository.AuthView;
+import com.likhith.springsecurity.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AppUserDetailsServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private AppUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AppUserDetailsService(userRepository, mock(PasswordUpgradeBatcher.class), new UserAuthorities(Set.of()),
+                new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS_CACHE), new SimpleMeterRegistry());
+        service.init();
+        when(userRepository.findAuthViewByEmail(EMAIL))
+                .thenReturn(Optional.of(new AuthView(EMAIL, "{bcrypt}hash", UUID.randomUUID(), 3)));
+    }
+
+    @Test
+    void erasingCredentialsAfterLoginDoesNotReachTheCachedUser() {
+        UserDetails first = service.loadUserByUsername(EMAIL);
+        ((User) first).eraseCredentials();
+
+        UserDetails second = service.loadUserByUsername(EMAIL);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("{bcrypt}hash");
+        verify(userRepository, times(1)).findAuthViewByEmail(EMAIL);
+    }
+
+    @Test
+    void upgradedHashIsServedFromTheCache() {
+        UserDetails user = service.loadUserByUsername(EMAIL);
+
+        service.updatePassword(user, "{argon2}new");
+
+        assertThat(service.loadUserByUsername(EMAIL))
+                .isInstanceOfSatisfying(AppUserDetails.class, upgraded -> {
+                    assertThat(upgraded.getPassword()).isEqualTo("{argon2}new");
+                    assertThat(upgraded.getTokenVersion()).isEqualTo(3);
+                });
+        verify(userRepository, times(1)).findAuthViewByEmail(EMAIL);
+    }
+}
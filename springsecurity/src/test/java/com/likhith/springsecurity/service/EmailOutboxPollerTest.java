@@ -0,0 +1,66 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.EmailOutboxEntity;
+import com.likhith.springsecurity.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxPollerTest {
+
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final MailDispatcher mailDispatcher = mock(MailDispatcher.class);
+    private EmailOutboxPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        poller = new EmailOutboxPoller(repository, mailDispatcher, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(poller, "batchSize", 50);
+        ReflectionTestUtils.setField(poller, "claimTimeout", Duration.ofMinutes(5));
+        when(repository.lockNextBatch(any(), anyInt())).thenReturn(List.of(
+                EmailOutboxEntity.builder().id(1L).recipient("a@example.com").status(EmailOutboxEntity.Status.PENDING).build(),
+                EmailOutboxEntity.builder().id(2L).recipient("b@example.com").status(EmailOutboxEntity.Status.PENDING).build()));
+    }
+
+    @Test
+    void rowsStillQueuedInTheDispatcherKeepTheirClaim() {
+        ArgumentCaptor<MailDispatcher.DeliveryListener> listeners = ArgumentCaptor.forClass(MailDispatcher.DeliveryListener.class);
+        when(mailDispatcher.enqueue(any(), anyBoolean(), listeners.capture())).thenReturn(true);
+        poller.poll();
+
+        poller.renewClaims();
+        verify(repository).renewClaims(eq(List.of(1L, 2L)), any());
+
+        listeners.getAllValues().get(0).delivered();
+        poller.renewClaims();
+        verify(repository).renewClaims(eq(List.of(2L)), any());
+
+        listeners.getAllValues().get(1).failed("rejected");
+        poller.renewClaims();
+        verify(repository, times(2)).renewClaims(anyCollection(), any());
+    }
+
+    @Test
+    void rowsHandedBackOnAFullQueueAreNotRenewed() {
+        when(mailDispatcher.enqueue(any(), anyBoolean(), any())).thenReturn(false);
+        poller.poll();
+
+        poller.renewClaims();
+
+        verify(repository, times(2)).updateStatus(any(), eq(EmailOutboxEntity.Status.PENDING), isNull());
+        verify(repository, never()).renewClaims(anyCollection(), any());
+    }
+}
@@ -0,0 +1,98 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.util.OtpHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest {
+
+    private InMemoryOtpStore otpStore;
+
+    @BeforeEach
+    void setUp() {
+        otpStore = newStore(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        otpStore.stop();
+    }
+
+    @Test
+    void otpIsSingleUse() {
+        otpStore.save("user@example.com", OtpPurpose.RESET_PASSWORD, "123456", Duration.ofMinutes(15));
+
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456")).isEqualTo(OtpStore.Result.VALID);
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456")).isEqualTo(OtpStore.Result.INVALID);
+    }
+
+    @Test
+    void wrongCodeOrPurposeIsRejectedWithoutConsumingTheOtp() {
+        otpStore.save("user@example.com", OtpPurpose.VERIFY_EMAIL, "123456", Duration.ofMinutes(15));
+
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.VERIFY_EMAIL, "654321")).isEqualTo(OtpStore.Result.INVALID);
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456")).isEqualTo(OtpStore.Result.INVALID);
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.VERIFY_EMAIL, "123456")).isEqualTo(OtpStore.Result.VALID);
+    }
+
+    @Test
+    void codeIsDeletedAfterTooManyWrongGuesses() {
+        otpStore.save("user@example.com", OtpPurpose.RESET_PASSWORD, "123456", Duration.ofMinutes(15));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "00000" + i)).isEqualTo(OtpStore.Result.INVALID);
+        }
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "000009")).isEqualTo(OtpStore.Result.ATTEMPTS_EXCEEDED);
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456")).isEqualTo(OtpStore.Result.INVALID);
+
+        // a new code starts with a clean count
+        otpStore.save("user@example.com", OtpPurpose.RESET_PASSWORD, "654321", Duration.ofMinutes(15));
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "000000")).isEqualTo(OtpStore.Result.INVALID);
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "654321")).isEqualTo(OtpStore.Result.VALID);
+    }
+
+    @Test
+    void expiredOtpIsReportedAndReclaimedByTheWheel() throws InterruptedException {
+        otpStore.save("expired@example.com", OtpPurpose.VERIFY_EMAIL, "111111", Duration.ofMillis(30));
+        // longer than one rotation of the 8 x 10ms wheel, so it must survive at least one pass
+        otpStore.save("later@example.com", OtpPurpose.VERIFY_EMAIL, "222222", Duration.ofMillis(400));
+
+        Thread.sleep(150);
+
+        assertThat(otpStore.size()).isEqualTo(1);
+        assertThat(otpStore.consume("expired@example.com", OtpPurpose.VERIFY_EMAIL, "111111")).isEqualTo(OtpStore.Result.INVALID);
+
+        Thread.sleep(400);
+        assertThat(otpStore.size()).isZero();
+    }
+
+    @Test
+    void consumeReportsExpiryBeforeTheWheelCatchesUp() throws InterruptedException {
+        otpStore.stop();
+        otpStore = newStore(Duration.ofMinutes(1));
+        otpStore.save("user@example.com", OtpPurpose.RESET_PASSWORD, "123456", Duration.ofMillis(1));
+
+        Thread.sleep(20);
+
+        assertThat(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456")).isEqualTo(OtpStore.Result.EXPIRED);
+    }
+
+    private InMemoryOtpStore newStore(Duration tick) {
+        OtpHasher otpHasher = new OtpHasher();
+        ReflectionTestUtils.setField(otpHasher, "secret", "test-secret");
+        otpHasher.init();
+
+        InMemoryOtpStore store = new InMemoryOtpStore(otpHasher);
+        ReflectionTestUtils.setField(store, "tick", tick);
+        ReflectionTestUtils.setField(store, "wheelSize", 8);
+        ReflectionTestUtils.setField(store, "maxAttempts", 5);
+        store.start();
+        return store;
+    }
+}
@@ -0,0 +1,97 @@
+package com.likhith.springsecurity.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.likhith.springsecurity.entity.MailDeadLetterEntity;
+import com.likhith.springsecurity.repository.MailDeadLetterRepository;
+import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final MailDeadLetterRepository mailDeadLetterRepository = mock(MailDeadLetterRepository.class);
+    private MailDispatcher mailDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (mailDispatcher != null) {
+            mailDispatcher.stop();
+        }
+    }
+
+    @Test
+    void enqueuedMessagesAreDeliveredInBatches() throws Exception {
+        mailDispatcher = newDispatcher(greenMail.getSmtp().getPort());
+
+        MailDispatcher.DeliveryListener listener = mock(MailDispatcher.DeliveryListener.class);
+        for (int i = 0; i < 25; i++) {
+            assertThat(mailDispatcher.enqueue(message("user" + i + "@example.com"), false, listener)).isTrue();
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(10_000, 25)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(25);
+        verify(listener, timeout(10_000).times(25)).delivered();
+        verify(listener, never()).failed(any());
+        verifyNoInteractions(mailDeadLetterRepository);
+    }
+
+    @Test
+    void undeliverableMessageIsDeadLetteredAfterRetriesWithoutItsSecret() {
+        // nothing listens on this port, so every attempt fails at connect time
+        mailDispatcher = newDispatcher(greenMail.getSmtp().getPort() + 1);
+
+        MailDispatcher.DeliveryListener listener = mock(MailDispatcher.DeliveryListener.class);
+        mailDispatcher.enqueue(message("lost@example.com"), true, listener);
+
+        ArgumentCaptor<MailDeadLetterEntity> captor = ArgumentCaptor.forClass(MailDeadLetterEntity.class);
+        verify(mailDeadLetterRepository, timeout(10_000)).save(captor.capture());
+        verify(listener).failed(anyString());
+        assertThat(captor.getValue().getRecipient()).isEqualTo("lost@example.com");
+        assertThat(captor.getValue().getAttempts()).isEqualTo(3);
+        assertThat(captor.getValue().getSubject()).isEqualTo("Test");
+        assertThat(captor.getValue().getBody()).isNull();
+    }
+
+    private MailDispatcher newDispatcher(int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("127.0.0.1");
+        javaMailSender.setPort(port);
+
+        MailDispatcher dispatcher = new MailDispatcher(javaMailSender, mailDeadLetterRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(dispatcher, "virtualThreads", true);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("vault@example.com");
+        message.setTo(to);
+        message.setSubject("Test");
+        message.setText("Hello");
+        return message;
+    }
+}
@@ -0,0 +1,176 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.UserEntity;
+import com.likhith.springsecurity.io.ProfileRequest;
+import com.likhith.springsecurity.repository.UserRepository;
+import com.likhith.springsecurity.util.PasswordHashingRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProfileServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final OtpStore otpStore = mock(OtpStore.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final TokenVersionRegistry tokenVersionRegistry = mock(TokenVersionRegistry.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ProfileServiceImpl profileService;
+
+    @BeforeEach
+    void setUp() {
+        profileService = new ProfileServiceImpl(userRepository, passwordEncoder, emailService, otpStore, refreshTokenService, tokenVersionRegistry,
+                new TransactionTemplate(transactionManager));
+        when(passwordEncoder.encode(any())).thenReturn("{bcrypt}hash");
+    }
+
+    @Test
+    void knownEmailIsRejectedBeforeThePasswordIsHashed() {
+        when(userRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        assertThatThrownBy(() -> profileService.createProfile(new ProfileRequest("Taken", "taken@example.com", "secret123")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).insertIfAbsent(any(UUID.class), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void passwordIsHashedBeforeTheInsertTransactionStarts() {
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.insertIfAbsent(any(UUID.class), anyString(), anyString(), anyString())).thenReturn(1);
+
+        profileService.createProfile(new ProfileRequest("New", "new@example.com", "secret123"));
+
+        InOrder inOrder = inOrder(userRepository, passwordEncoder, transactionManager, emailService);
+        inOrder.verify(userRepository).existsByEmail("new@example.com");
+        inOrder.verify(passwordEncoder).encode("secret123");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).insertIfAbsent(any(UUID.class), eq("New"), eq("new@example.com"), eq("{bcrypt}hash"));
+        inOrder.verify(emailService).sendWelcomeEmail("new@example.com", "New");
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void resetOtpSurvivesARejectionFromTheHashingPool() {
+        when(userRepository.existsByEmail("user@example.com")).thenReturn(true);
+        when(passwordEncoder.encode("newSecret123")).thenThrow(new PasswordHashingRejectedException("busy"));
+
+        assertThatThrownBy(() -> profileService.resetPassword("user@example.com", "123456", "newSecret123"))
+                .isInstanceOf(PasswordHashingRejectedException.class);
+        verifyNoInteractions(otpStore);
+    }
+
+    @Test
+    void resetOtpIsConsumedInTheTransactionThatWritesThePassword() {
+        UserEntity user = UserEntity.builder().email("user@example.com").tokenVersion(2L).build();
+        when(userRepository.existsByEmail("user@example.com")).thenReturn(true);
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456")).thenReturn(OtpStore.Result.VALID);
+
+        profileService.resetPassword("user@example.com", "123456", "newSecret123");
+
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager, otpStore, userRepository, refreshTokenService);
+        inOrder.verify(passwordEncoder).encode("newSecret123");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(otpStore).consume("user@example.com", OtpPurpose.RESET_PASSWORD, "123456");
+        inOrder.verify(userRepository).save(user);
+        inOrder.verify(refreshTokenService).revokeAll("user@example.com");
+        inOrder.verify(transactionManager).commit(any());
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}hash");
+        assertThat(user.getTokenVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void wrongResetOtpLeavesThePasswordAloneButCommitsTheAttempt() {
+        when(userRepository.existsByEmail("user@example.com")).thenReturn(true);
+        when(otpStore.consume("user@example.com", OtpPurpose.RESET_PASSWORD, "000000")).thenReturn(OtpStore.Result.INVALID);
+
+        assertThatThrownBy(() -> profileService.resetPassword("user@example.com", "000000", "newSecret123"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void emailIsStoredInCanonicalFormSoCaseVariantsCollide() {
+        Set<String> emails = new HashSet<>();
+        when(userRepository.existsByEmail(anyString())).thenAnswer(invocation -> emails.contains(invocation.getArgument(0)));
+        when(userRepository.insertIfAbsent(any(UUID.class), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> emails.add(invocation.getArgument(2)) ? 1 : 0);
+
+        profileService.createProfile(ProfileRequest.builder().name("Foo").email(" Foo@Example.com ").password("secret123").build());
+
+        assertThat(emails).containsExactly("foo@example.com");
+        assertThatThrownBy(() -> profileService.createProfile(new ProfileRequest("Foo", "FOO@example.COM", "secret123")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void concurrentRegistrationsOfTheSameEmailCreateOneUser() throws Exception {
+        // every request passes the pre-check; the unique constraint lets exactly one insert through
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.insertIfAbsent(any(UUID.class), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> emails.add(invocation.getArgument(2)) ? 1 : 0);
+
+        int requests = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        profileService.createProfile(new ProfileRequest("Racer", "race@example.com", "secret123"));
+                    } catch (ResponseStatusException ex) {
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(conflicts).hasValue(requests - 1);
+        verify(emailService, times(1)).sendWelcomeEmail("race@example.com", "Racer");
+    }
+}
@@ -0,0 +1,98 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.SigningKeyEntity;
+import com.likhith.springsecurity.repository.SigningKeyRepository;
+import com.likhith.springsecurity.util.JwtSigningAlgorithm;
+import com.likhith.springsecurity.util.JwtUtil;
+import com.likhith.springsecurity.util.PrivateKeyCipher;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SigningKeyServiceTest {
+
+    private final List<SigningKeyEntity> rows = new ArrayList<>();
+    private final SigningKeyRepository repository = mock(SigningKeyRepository.class);
+    private SigningKeyService service;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAllByOrderByActivatesAtAsc()).thenAnswer(invocation -> rows.stream()
+                .sorted(Comparator.comparing(SigningKeyEntity::getActivatesAt))
+                .toList());
+        when(repository.save(any())).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        doAnswer(invocation -> rows.remove(invocation.<SigningKeyEntity>getArgument(0))).when(repository).delete(any());
+
+        PrivateKeyCipher cipher = new PrivateKeyCipher();
+        ReflectionTestUtils.setField(cipher, "secret", "test-secret");
+        cipher.init();
+
+        service = new SigningKeyService(repository, cipher);
+        ReflectionTestUtils.setField(service, "algorithm", JwtSigningAlgorithm.ES256);
+        ReflectionTestUtils.setField(service, "rotationInterval", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "publishLead", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", Duration.ofMinutes(15));
+        service.init();
+
+        jwtUtil = new JwtUtil(service, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", Duration.ofMinutes(15));
+        jwtUtil.init();
+    }
+
+    @Test
+    void firstKeyIsCreatedActiveAndPrivateKeyIsStoredEncrypted() {
+        assertThat(rows).hasSize(1);
+        assertThat(service.publishedKeys()).hasSize(1);
+        assertThat(rows.get(0).getEncryptedPrivateKey())
+                .isNotEqualTo(Base64.getEncoder().encodeToString(service.signingKey().privateKey().getEncoded()));
+
+        String token = jwtUtil.generateToken(new User("user@example.com", "", List.of()));
+        assertThat(jwtUtil.verify(token).email()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void nextKeyIsPublishedBeforeItSignsAndOldTokensKeepVerifying() {
+        String oldKid = service.signingKey().kid();
+        String oldToken = jwtUtil.generateToken(new User("user@example.com", "", List.of()));
+
+        // pretend the current key has been signing for almost a full rotation interval
+        rows.get(0).setActivatesAt(Timestamp.from(Instant.now().minus(Duration.ofDays(7)).plus(Duration.ofMinutes(30))));
+        service.rotate();
+
+        assertThat(service.publishedKeys()).hasSize(2);
+        assertThat(service.signingKey().kid()).isEqualTo(oldKid);
+        assertThat(jwtUtil.verify(oldToken).email()).isEqualTo("user@example.com");
+
+        // the new key takes over, the old one stays verifiable until its tokens have expired, then goes away
+        rows.get(1).setActivatesAt(Timestamp.from(Instant.now().minus(Duration.ofMinutes(1))));
+        service.rotate();
+        assertThat(service.signingKey().kid()).isNotEqualTo(oldKid);
+        assertThat(jwtUtil.verify(oldToken).email()).isEqualTo("user@example.com");
+
+        rows.get(1).setActivatesAt(Timestamp.from(Instant.now().minus(Duration.ofMinutes(20))));
+        service.rotate();
+        assertThat(service.publishedKeys()).extracting("kid").doesNotContain(oldKid);
+        ReflectionTestUtils.setField(service, "lastReloadMillis", System.currentTimeMillis());
+        assertThatThrownBy(() -> jwtUtil.verify(oldToken)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,175 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.entity.RevokedTokenEntity;
+import com.likhith.springsecurity.repository.RevokedTokenRepository;
+import com.likhith.springsecurity.util.BloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(repository);
+        ReflectionTestUtils.setField(service, "expectedInsertions", 1000);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+    }
+
+    @Test
+    void unknownTokensAreAnsweredByTheFilterWithoutALookup() {
+        when(repository.countActive(any())).thenReturn(1L);
+        when(repository.streamActiveJtis(any())).thenReturn(Stream.of("revoked-jti"));
+        service.rebuild();
+
+        assertThat(service.isRevoked(UUID.randomUUID().toString())).isFalse();
+        verify(repository, never()).existsById(anyString());
+
+        when(repository.existsById("revoked-jti")).thenReturn(true);
+        assertThat(service.isRevoked("revoked-jti")).isTrue();
+    }
+
+    @Test
+    void revokedTokensAreVisibleBeforeTheNextRebuild() {
+        when(repository.countActive(any())).thenReturn(0L);
+        when(repository.streamActiveJtis(any())).thenReturn(Stream.empty());
+        service.rebuild();
+
+        service.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+        verify(repository).save(any(RevokedTokenEntity.class));
+
+        when(repository.existsById("jti-1")).thenReturn(true);
+        assertThat(service.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void revocationDuringARebuildEndsUpInTheSwappedFilter() throws Exception {
+        Set<String> committed = ConcurrentHashMap.newKeySet();
+        storeLike(committed);
+        CountDownLatch streamOpened = new CountDownLatch(1);
+        CountDownLatch revoked = new CountDownLatch(1);
+        when(repository.countActive(any())).thenReturn(0L);
+        // the stream snapshot is taken before the revocation commits, and the rebuild only finishes after it
+        when(repository.streamActiveJtis(any())).thenAnswer(invocation -> {
+            List<String> snapshot = List.copyOf(committed);
+            return Stream.of(snapshot).peek(ignored -> {
+                streamOpened.countDown();
+                await(revoked);
+            }).flatMap(List::stream);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = executor.submit(service::rebuild);
+            streamOpened.await(5, TimeUnit.SECONDS);
+            service.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+            revoked.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(committed).containsExactly("jti-1");
+        assertThat(service.mightBeRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void revocationIsNotLostWhenTheFilterIsSwappedWhileItIsBeingAdded() throws Exception {
+        Set<String> committed = ConcurrentHashMap.newKeySet();
+        storeLike(committed);
+        CountDownLatch streamOpened = new CountDownLatch(1);
+        CountDownLatch finishRebuild = new CountDownLatch(1);
+        when(repository.countActive(any())).thenReturn(0L);
+        when(repository.streamActiveJtis(any())).thenAnswer(invocation -> {
+            List<String> snapshot = List.copyOf(committed);
+            return Stream.of(snapshot).peek(ignored -> {
+                streamOpened.countDown();
+                await(finishRebuild);
+            }).flatMap(List::stream);
+        });
+
+        // the filter in use before the rebuild; adding to it is where revoke() is paused while the rebuild
+        // completes, so the swap happens between revoke's reads of the two filters
+        CountDownLatch addingToOldFilter = new CountDownLatch(1);
+        CountDownLatch rebuildDone = new CountDownLatch(1);
+        ReflectionTestUtils.setField(service, "filter", new BloomFilter(1000, 0.01) {
+            @Override
+            public void put(String value) {
+                super.put(value);
+                addingToOldFilter.countDown();
+                TokenRevocationServiceTest.await(rebuildDone);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> rebuild = executor.submit(service::rebuild);
+            streamOpened.await(5, TimeUnit.SECONDS);
+            Future<?> revoke = executor.submit(() -> service.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000)));
+            addingToOldFilter.await(5, TimeUnit.SECONDS);
+            finishRebuild.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+            rebuildDone.countDown();
+            revoke.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(service.mightBeRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotStored() {
+        service.revoke("jti-1", new Date(System.currentTimeMillis() - 1000));
+
+        verify(repository, never()).save(any());
+    }
+
+    // save behaves like a committed insert into tbl_revoked_tokens
+    private void storeLike(Set<String> committed) {
+        when(repository.save(any(RevokedTokenEntity.class))).thenAnswer(invocation -> {
+            RevokedTokenEntity entity = invocation.getArgument(0);
+            committed.add(entity.getJti());
+            return entity;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void bloomFilterStaysNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("member-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("member-" + i))).isTrue();
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("other-" + i)).count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
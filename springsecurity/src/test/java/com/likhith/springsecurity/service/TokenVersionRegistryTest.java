@@ -0,0 +1,70 @@
+package com.likhith.springsecurity.service;
+
+import com.likhith.springsecurity.config.CacheConfig;
+import com.likhith.springsecurity.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TokenVersionRegistryTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LocalTokenVersionChannel channel = new LocalTokenVersionChannel();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS_CACHE);
+    private TokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = newRegistry();
+    }
+
+    @Test
+    void versionIsLoadedOnceAndThenServedFromTheCache() {
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(3L));
+
+        assertThat(registry.isCurrent(EMAIL, 3)).isTrue();
+        assertThat(registry.isCurrent(EMAIL, 2)).isFalse();
+        verify(userRepository, times(1)).findTokenVersionByEmail(EMAIL);
+    }
+
+    @Test
+    void versionChangeIsSeenByEveryNodeOnTheChannel() {
+        TokenVersionRegistry otherNode = newRegistry();
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(0L));
+        assertThat(registry.isCurrent(EMAIL, 0)).isTrue();
+        assertThat(otherNode.isCurrent(EMAIL, 0)).isTrue();
+        cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE).put(EMAIL, "cached user");
+
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(1L));
+        registry.versionChanged(EMAIL);
+
+        assertThat(registry.isCurrent(EMAIL, 0)).isFalse();
+        assertThat(otherNode.isCurrent(EMAIL, 0)).isFalse();
+        assertThat(otherNode.isCurrent(EMAIL, 1)).isTrue();
+        assertThat(cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE).get(EMAIL)).isNull();
+    }
+
+    @Test
+    void unknownUsersAreNeverCurrent() {
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThat(registry.isCurrent(EMAIL, 0)).isFalse();
+    }
+
+    private TokenVersionRegistry newRegistry() {
+        TokenVersionRegistry newRegistry = new TokenVersionRegistry(userRepository, channel, cacheManager);
+        ReflectionTestUtils.setField(newRegistry, "cacheSize", 100L);
+        ReflectionTestUtils.setField(newRegistry, "cacheTtl", Duration.ofMinutes(5));
+        newRegistry.init();
+        return newRegistry;
+    }
+}
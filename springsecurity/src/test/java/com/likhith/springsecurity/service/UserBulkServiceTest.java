@@ -0,0 +1,137 @@
+package com.likhith.springsecurity.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.likhith.springsecurity.entity.UserEntity;
+import com.likhith.springsecurity.io.ImportResponse;
+import com.likhith.springsecurity.io.UserExportRow;
+import com.likhith.springsecurity.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UserBulkServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final Set<String> storedEmails = new HashSet<>();
+    private final List<UserEntity> inserted = new ArrayList<>();
+    private UserBulkService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new UserBulkService(userRepository, passwordEncoder, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "hashingParallelism", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 10);
+
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> "{bcrypt}hash-of-" + invocation.getArgument(0));
+        when(userRepository.findExistingEmails(any())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0)).stream()
+                .filter(storedEmails::contains)
+                .toList());
+        // behaves like ON CONFLICT (email) DO NOTHING
+        when(userRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<UserEntity> users = invocation.getArgument(0);
+            int[] counts = new int[users.size()];
+            for (int i = 0; i < users.size(); i++) {
+                if (storedEmails.add(users.get(i).getEmail())) {
+                    inserted.add(users.get(i));
+                    counts[i] = 1;
+                }
+            }
+            return counts;
+        });
+    }
+
+    @Test
+    void ndjsonRowsAreImportedInBatchesAndBadRowsAreReported() throws Exception {
+        storedEmails.add("existing@example.com");
+        String ndjson = """
+                {"name":"Ann","email":"ann@example.com","password":"secret123"}
+                {"name":"Bob","email":"bob@example.com","passwordHash":"{bcrypt}$2a$10$precomputed","isAccountVerified":true}
+                not json
+                {"name":"Old","email":"existing@example.com","password":"secret123"}
+                {"name":"Ann again","email":"ann@example.com","password":"secret123"}
+                {"name":"Short","email":"short@example.com","password":"abc"}
+                {"name":"Weird","email":"weird@example.com","passwordHash":"plaintext"}
+
+                {"name":"Cy","email":"cy@example.com","password":"secret456"}
+                """;
+
+        ImportResponse response = service.importUsers(stream(ndjson), UserBulkService.Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(5);
+        assertThat(response.getErrors())
+                .extracting(ImportResponse.RowError::line)
+                .containsExactlyInAnyOrder(3L, 4L, 5L, 6L, 7L);
+        assertThat(inserted)
+                .extracting(UserEntity::getEmail, UserEntity::getPassword, UserEntity::getIsAccountVerified)
+                .containsExactly(
+                        tuple("ann@example.com", "{bcrypt}hash-of-secret123", false),
+                        tuple("bob@example.com", "{bcrypt}$2a$10$precomputed", true),
+                        tuple("cy@example.com", "{bcrypt}hash-of-secret456", false));
+        // rows whose email already exists, including ones imported by an earlier batch of the same file, are never hashed
+        verify(passwordEncoder, times(2)).encode(any());
+        verify(userRepository, atLeast(2)).insertAllIfAbsent(anyList());
+    }
+
+    @Test
+    void csvColumnsAreMatchedByHeaderAndQuotedFieldsAreKept() throws Exception {
+        String csv = """
+                userId,email,name,password
+                ignored,"dana@example.com","Doe, Dana",secret123
+                ignored,,No Email,secret123
+                """;
+
+        ImportResponse response = service.importUsers(stream(csv), UserBulkService.Format.CSV);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.line()).isEqualTo(3));
+        assertThat(inserted).singleElement()
+                .satisfies(user -> assertThat(user.getName()).isEqualTo("Doe, Dana"));
+    }
+
+    @Test
+    void exportLeavesPasswordHashesOutUnlessAskedFor() throws Exception {
+        when(userRepository.streamAllForExport()).thenAnswer(invocation -> Stream.of(
+                new UserExportRow(UUID.fromString("0190f7a4-3c2b-7d10-8a4e-5b6c7d8e9f00"), "Doe, Dana", "dana@example.com", true, "{bcrypt}hash")));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        service.exportUsers(csv, UserBulkService.Format.CSV, false);
+        assertThat(csv.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                userId,name,email,isAccountVerified
+                0190f7a4-3c2b-7d10-8a4e-5b6c7d8e9f00,"Doe, Dana",dana@example.com,true
+                """);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        service.exportUsers(ndjson, UserBulkService.Format.NDJSON, true);
+        assertThat(ndjson.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"userId\":\"0190f7a4-3c2b-7d10-8a4e-5b6c7d8e9f00\",\"name\":\"Doe, Dana\",\"email\":\"dana@example.com\",\"isAccountVerified\":true,\"passwordHash\":\"{bcrypt}hash\"}\n");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
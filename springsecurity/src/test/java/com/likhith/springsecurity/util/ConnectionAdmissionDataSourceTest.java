@@ -0,0 +1,50 @@
+package com.likhith.springsecurity.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConnectionAdmissionDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource pool = mock(DataSource.class);
+    private final ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(pool, 1, Duration.ofMillis(50), meterRegistry);
+
+    @Test
+    void waitsForAPermitAndFailsFastWhenNoneIsReturned() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        Connection first = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(meterRegistry.get("db.connection.admission.rejected").counter().count()).isEqualTo(1);
+
+        // closing twice must not hand out a second permit
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+    }
+
+    @Test
+    void permitIsReturnedWhenThePoolFails() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(pool.getConnection()).thenThrow(new SQLException("pool down")).thenReturn(connection);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool down");
+
+        Connection admitted = dataSource.getConnection();
+        admitted.isValid(1);
+        verify(connection).isValid(1);
+    }
+}
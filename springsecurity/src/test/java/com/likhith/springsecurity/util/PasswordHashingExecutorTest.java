@@ -0,0 +1,95 @@
+package com.likhith.springsecurity.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor(meterRegistry);
+        ReflectionTestUtils.setField(executor, "poolSize", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "timeout", Duration.ofSeconds(5));
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> {
+            running.countDown();
+            await(release);
+            return true;
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> true));
+        waitForQueueDepth(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> executor.execute("matches", () -> true))
+                .isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("security.password.hashing.rejected").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.timer("security.password.hashing", "operation", "matches").count()).isEqualTo(2);
+    }
+
+    @Test
+    void boundedEncoderDelegatesThroughThePool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(4), executor, meterRegistry);
+
+        String hash = encoder.encode("secret123");
+
+        assertThat(encoder.matches("secret123", hash)).isTrue();
+        assertThat(meterRegistry.timer("security.password.hashing", "operation", "encode").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("security.password.hashing.queue").count()).isEqualTo(2);
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.timer("security.password.matches", "outcome", "match").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("security.password.matches", "outcome", "mismatch").count()).isEqualTo(1);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("security.password.hashing.queue.depth").gauge().value() < depth) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("queue never reached depth " + depth);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}